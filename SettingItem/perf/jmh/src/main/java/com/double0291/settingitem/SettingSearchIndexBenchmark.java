@@ -0,0 +1,126 @@
+package com.double0291.settingitem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SettingSearchIndex} over a 10k entry settings corpus, compared with the linear contains() scan it replaces.
+ * Queries cover a common prefix, a rare word, a Chinese bigram and a miss; {@link #buildIndex} is the one-off cost of
+ * indexing the whole corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SettingSearchIndexBenchmark {
+    private static final int ENTRIES = 10000;
+
+    private static final String[] WORDS = { "wifi", "bluetooth", "network", "display", "brightness", "sound",
+            "volume", "notification", "privacy", "location", "battery", "storage", "account", "sync", "backup",
+            "language", "keyboard", "accessibility", "developer", "security", "wallpaper", "theme", "font", "mobile",
+            "data", "roaming", "hotspot", "vibrate", "ringtone", "alarm",
+            // Chinese labels: wireless network, bluetooth, display, sound, notification, privacy, battery, storage
+            "\u65e0\u7ebf\u7f51\u7edc", "\u84dd\u7259", "\u663e\u793a", "\u58f0\u97f3", "\u901a\u77e5",
+            "\u9690\u79c1", "\u7535\u6c60", "\u5b58\u50a8" };
+
+    @Param({ "net", "accessibility", "\u901a\u77e5", "zzz" })
+    public String query;
+
+    private final List<SettingItemModel> mModels = new ArrayList<SettingItemModel>(ENTRIES);
+    private final SettingSearchIndex mIndex = new SettingSearchIndex();
+    /**
+     * Same corpus for {@link #buildIndex}, a model can only belong to one index at a time
+     */
+    private final List<SettingItemModel> mBuildModels = new ArrayList<SettingItemModel>(ENTRIES);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < ENTRIES; i++) {
+            final SettingItemModel model = new SettingItemModel(
+                    random.nextInt(4) == 0 ? SettingItemModel.TYPE_SWITCH : SettingItemModel.TYPE_SIMPLE, i + 1);
+            model.setLeftText(phrase(random, 1 + random.nextInt(3)) + " " + i);
+            if (random.nextBoolean()) {
+                model.setRightText(phrase(random, 1));
+            }
+            mModels.add(model);
+
+            final SettingItemModel copy = new SettingItemModel(model.getType(), model.getId());
+            copy.setLeftText(model.getLeftText());
+            copy.setRightText(model.getRightText());
+            mBuildModels.add(copy);
+        }
+        mIndex.addAll(mModels);
+    }
+
+    private static String phrase(Random random, int words) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public List<SettingItemModel> search() {
+        return mIndex.search(query);
+    }
+
+    /**
+     * The first screen of results only, as a search box shows them while typing
+     */
+    @Benchmark
+    public List<SettingItemModel> searchTop20() {
+        return mIndex.search(query, 20);
+    }
+
+    /**
+     * Baseline: lower-case and contains() over every label, without ranking
+     */
+    @Benchmark
+    public List<SettingItemModel> linearScan() {
+        final String q = query.toLowerCase(Locale.US);
+        final List<SettingItemModel> result = new ArrayList<SettingItemModel>();
+        for (int i = 0, size = mModels.size(); i < size; i++) {
+            final SettingItemModel model = mModels.get(i);
+            if (contains(model.getLeftText(), q) || contains(model.getRightText(), q)
+                    || contains(model.getSwitchText(), q)) {
+                result.add(model);
+            }
+        }
+        return result;
+    }
+
+    private static boolean contains(CharSequence text, String q) {
+        return text != null && text.toString().toLowerCase(Locale.US).contains(q);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SettingSearchIndex buildIndex() {
+        final SettingSearchIndex index = new SettingSearchIndex();
+        index.addAll(mBuildModels);
+        return index;
+    }
+}
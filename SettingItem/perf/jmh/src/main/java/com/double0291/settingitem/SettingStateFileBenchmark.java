@@ -0,0 +1,220 @@
+package com.double0291.settingitem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold-start restore and save of switch and red point states: {@link SettingStateFile} against the XML preference maps
+ * it replaces. {@code xmlPull*} uses the SharedPreferences file layout ({@code <map><boolean name= value=/>...}) read
+ * with a pull parser, {@code propertiesXml*} uses {@link Properties#loadFromXML}. Each restore reads the file and applies
+ * the states to every model, each save writes all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SettingStateFileBenchmark {
+    @Param({ "500", "5000" })
+    public int items;
+
+    private final List<SettingItemModel> mModels = new ArrayList<SettingItemModel>();
+    private File mDir;
+    private File mStateFile;
+    private File mXmlFile;
+    private File mPropertiesFile;
+
+    private final XMLInputFactory mInputFactory = XMLInputFactory.newInstance();
+    private final XMLOutputFactory mOutputFactory = XMLOutputFactory.newInstance();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final Random random = new Random(42);
+        for (int i = 0; i < items; i++) {
+            final SettingItemModel model = new SettingItemModel(
+                    random.nextInt(4) == 0 ? SettingItemModel.TYPE_SWITCH : SettingItemModel.TYPE_SIMPLE,
+                    0x7f080000 + i);
+            model.setSwitchChecked(random.nextBoolean());
+            model.setRedPointType(random.nextInt(8) == 0 ? 1 + random.nextInt(2)
+                    : SettingItemConstants.RED_POINT_TYPE_NONE);
+            mModels.add(model);
+        }
+
+        mDir = File.createTempFile("setting-state", "");
+        mDir.delete();
+        mDir.mkdirs();
+        mStateFile = new File(mDir, "states.bin");
+        mXmlFile = new File(mDir, "states.xml");
+        mPropertiesFile = new File(mDir, "states.properties.xml");
+        stateFileSave();
+        xmlPullSave();
+        propertiesXmlSave();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        final File[] files = mDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDir.delete();
+    }
+
+    private static String checkedKey(int id) {
+        return "switch_" + id;
+    }
+
+    private static String redPointKey(int id) {
+        return "red_point_" + id;
+    }
+
+    @Benchmark
+    public int stateFileRestore() throws IOException {
+        return SettingStateFile.open(mStateFile).restore(mModels);
+    }
+
+    @Benchmark
+    public void stateFileSave() throws IOException {
+        SettingStateFile.write(mStateFile, mModels);
+    }
+
+    @Benchmark
+    public int xmlPullRestore() throws IOException, XMLStreamException {
+        final HashMap<String, Object> map = new HashMap<String, Object>();
+        final InputStream in = new BufferedInputStream(new FileInputStream(mXmlFile), 16 * 1024);
+        try {
+            final XMLStreamReader parser = mInputFactory.createXMLStreamReader(in);
+            while (parser.hasNext()) {
+                if (parser.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                final String tag = parser.getLocalName();
+                if ("boolean".equals(tag)) {
+                    map.put(parser.getAttributeValue(null, "name"),
+                            Boolean.valueOf(parser.getAttributeValue(null, "value")));
+                } else if ("int".equals(tag)) {
+                    map.put(parser.getAttributeValue(null, "name"),
+                            Integer.valueOf(parser.getAttributeValue(null, "value")));
+                }
+            }
+            parser.close();
+        } finally {
+            in.close();
+        }
+
+        int restored = 0;
+        for (int i = 0, size = mModels.size(); i < size; i++) {
+            final SettingItemModel model = mModels.get(i);
+            final Boolean checked = (Boolean) map.get(checkedKey(model.getId()));
+            final Integer redPointType = (Integer) map.get(redPointKey(model.getId()));
+            if (checked != null && redPointType != null) {
+                model.setSwitchChecked(checked);
+                model.setRedPointType(redPointType);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    @Benchmark
+    public void xmlPullSave() throws IOException, XMLStreamException {
+        final OutputStream out = new BufferedOutputStream(new FileOutputStream(mXmlFile), 16 * 1024);
+        try {
+            final XMLStreamWriter writer = mOutputFactory.createXMLStreamWriter(out, "utf-8");
+            writer.writeStartDocument("utf-8", "1.0");
+            writer.writeStartElement("map");
+            for (int i = 0, size = mModels.size(); i < size; i++) {
+                final SettingItemModel model = mModels.get(i);
+                writer.writeEmptyElement("boolean");
+                writer.writeAttribute("name", checkedKey(model.getId()));
+                writer.writeAttribute("value", Boolean.toString(model.isSwitchChecked()));
+                writer.writeEmptyElement("int");
+                writer.writeAttribute("name", redPointKey(model.getId()));
+                writer.writeAttribute("value", Integer.toString(model.getRedPointType()));
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } finally {
+            out.close();
+        }
+    }
+
+    @Benchmark
+    public int propertiesXmlRestore() throws IOException {
+        final Properties properties = new Properties();
+        final InputStream in = new BufferedInputStream(new FileInputStream(mPropertiesFile), 16 * 1024);
+        try {
+            properties.loadFromXML(in);
+        } finally {
+            in.close();
+        }
+
+        int restored = 0;
+        for (int i = 0, size = mModels.size(); i < size; i++) {
+            final SettingItemModel model = mModels.get(i);
+            final String checked = properties.getProperty(checkedKey(model.getId()));
+            final String redPointType = properties.getProperty(redPointKey(model.getId()));
+            if (checked != null && redPointType != null) {
+                model.setSwitchChecked(Boolean.parseBoolean(checked));
+                model.setRedPointType(Integer.parseInt(redPointType));
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    @Benchmark
+    public void propertiesXmlSave() throws IOException {
+        final Properties properties = new Properties();
+        for (int i = 0, size = mModels.size(); i < size; i++) {
+            final SettingItemModel model = mModels.get(i);
+            properties.setProperty(checkedKey(model.getId()), Boolean.toString(model.isSwitchChecked()));
+            properties.setProperty(redPointKey(model.getId()), Integer.toString(model.getRedPointType()));
+        }
+
+        final OutputStream out = new BufferedOutputStream(new FileOutputStream(mPropertiesFile), 16 * 1024);
+        try {
+            properties.storeToXML(out, null);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.double0291.settingitem;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link SettingWidthAllocator#allocate} as paid by {@link SettingSimpleItem#onMeasure}: a full allocation for
+ * every bound row while scrolling a list, and the cached path for the repeated measure passes of an unchanged row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SettingWidthAllocatorBenchmark {
+    private static final int ROWS = 1024;
+    private static final int WIDTH = 1080;
+    private static final int PADDING = 36;
+
+    private final SettingWidthAllocator mAllocator = new SettingWidthAllocator(PADDING, 72, 24);
+
+    private final int[] mLeftIconWidths = new int[ROWS];
+    private final int[] mLeftTextWidths = new int[ROWS];
+    private final int[] mRightIconWidths = new int[ROWS];
+    private final int[] mRightTextWidths = new int[ROWS];
+    private final int[] mRedPointWidths = new int[ROWS];
+    private final int[] mFlags = new int[ROWS];
+    private int mRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same mix as a long settings screen: about half the rows show right text, some show an icon, most an arrow
+        final Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            mLeftIconWidths[i] = random.nextBoolean() ? 72 + PADDING : 0;
+            mLeftTextWidths[i] = 80 + random.nextInt(900);
+            int flags = 0;
+            if (random.nextBoolean()) {
+                flags |= SettingWidthAllocator.FLAG_RIGHT_TEXT;
+                mRightTextWidths[i] = 40 + random.nextInt(700);
+            }
+            if (random.nextInt(4) == 0) {
+                flags |= SettingWidthAllocator.FLAG_RIGHT_ICON;
+                mRightIconWidths[i] += 72 + PADDING;
+            }
+            if (random.nextInt(4) != 0) {
+                flags |= SettingWidthAllocator.FLAG_ARROW;
+                mRightIconWidths[i] += 24 + PADDING;
+            }
+            mRedPointWidths[i] = random.nextInt(8) == 0 ? 30 : 0;
+            mFlags[i] = flags;
+        }
+    }
+
+    /**
+     * A different row every call, as when a recycled row is rebound during a fling
+     */
+    @Benchmark
+    public int allocateRebind() {
+        final int i = mRow;
+        mRow = (i + 1) & (ROWS - 1);
+        mAllocator.allocate(WIDTH, mLeftIconWidths[i], mLeftTextWidths[i], mRightIconWidths[i], mRightTextWidths[i],
+                mRedPointWidths[i], mFlags[i]);
+        return mAllocator.getLeftMaxWidth() + mAllocator.getRightMaxWidth();
+    }
+
+    /**
+     * The same row again, as in the second measure pass of a RelativeLayout
+     */
+    @Benchmark
+    public int allocateUnchanged() {
+        mAllocator.allocate(WIDTH, mLeftIconWidths[0], mLeftTextWidths[0], mRightIconWidths[0], mRightTextWidths[0],
+                mRedPointWidths[0], mFlags[0]);
+        return mAllocator.getLeftMaxWidth() + mAllocator.getRightMaxWidth();
+    }
+}
@@ -0,0 +1,76 @@
+package com.double0291.settingitem;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per-event thumb arithmetic of {@link Switch}: {@link SwitchGeometry#hitThumb} runs on every ACTION_DOWN and
+ * {@link SwitchGeometry#getThumbScrollRange} on every ACTION_MOVE of a drag, so both have to stay allocation free.
+ * Geometry is that of the default xhdpi drawables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwitchGeometryBenchmark {
+    private static final int EVENTS = 1024;
+
+    private static final int SWITCH_LEFT = 900;
+    private static final int SWITCH_TOP = 30;
+    private static final int SWITCH_WIDTH = 144;
+    private static final int SWITCH_HEIGHT = 84;
+    private static final int THUMB_WIDTH = 72;
+    private static final int THUMB_PADDING = 6;
+    private static final int TRACK_PADDING = 4;
+    private static final int TOUCH_SLOP = 16;
+
+    private final float[] mX = new float[EVENTS];
+    private final float[] mY = new float[EVENTS];
+    private final float[] mThumbPositions = new float[EVENTS];
+    private int mEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Touches spread over the switch and its slop, thumb anywhere along the track
+        final Random random = new Random(42);
+        final int range = SwitchGeometry.getThumbScrollRange(SWITCH_WIDTH, THUMB_WIDTH, TRACK_PADDING, TRACK_PADDING);
+        for (int i = 0; i < EVENTS; i++) {
+            mX[i] = SWITCH_LEFT - TOUCH_SLOP * 2 + random.nextFloat() * (SWITCH_WIDTH + TOUCH_SLOP * 4);
+            mY[i] = SWITCH_TOP - TOUCH_SLOP * 2 + random.nextFloat() * (SWITCH_HEIGHT + TOUCH_SLOP * 4);
+            mThumbPositions[i] = random.nextFloat() * range;
+        }
+    }
+
+    @Benchmark
+    public boolean hitThumb() {
+        final int i = mEvent;
+        mEvent = (i + 1) & (EVENTS - 1);
+        return SwitchGeometry.hitThumb(mX[i], mY[i], SWITCH_LEFT, SWITCH_TOP, SWITCH_TOP + SWITCH_HEIGHT,
+                mThumbPositions[i], THUMB_WIDTH, THUMB_PADDING, THUMB_PADDING, TOUCH_SLOP);
+    }
+
+    /**
+     * One drag step: clamp the new thumb position into the scroll range
+     */
+    @Benchmark
+    public float dragStep() {
+        final int i = mEvent;
+        mEvent = (i + 1) & (EVENTS - 1);
+        final int range = SwitchGeometry.getThumbScrollRange(SWITCH_WIDTH, THUMB_WIDTH, TRACK_PADDING, TRACK_PADDING);
+        return Math.max(0, Math.min(mThumbPositions[i] + mX[i] - SWITCH_LEFT, range));
+    }
+}
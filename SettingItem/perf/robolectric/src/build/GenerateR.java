@@ -0,0 +1,167 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Generates the R class of the library from its res/ directory, standing in for aapt in the Robolectric module. Robolectric
+ * runs in legacy resources mode and reads the raw resources itself, so R only needs unique ids per name and styleable
+ * arrays whose indices match their declaration order.
+ * <p/>
+ * Usage: java GenerateR.java &lt;res dir&gt; &lt;output dir&gt; &lt;package&gt;
+ */
+public class GenerateR {
+    private static final Pattern NEW_ID = Pattern.compile("@\\+id/(\\w+)");
+
+    private final Map<String, TreeSet<String>> mTypes = new TreeMap<String, TreeSet<String>>();
+    private final Map<String, List<String>> mStyleables = new TreeMap<String, List<String>>();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: GenerateR <res dir> <output dir> <package>");
+        }
+        GenerateR generator = new GenerateR();
+        generator.scan(new File(args[0]));
+        generator.write(new File(args[1]), args[2]);
+    }
+
+    private void add(String type, String name) {
+        TreeSet<String> names = mTypes.get(type);
+        if (names == null) {
+            names = new TreeSet<String>();
+            mTypes.put(type, names);
+        }
+        names.add(name.replace('.', '_'));
+    }
+
+    private void scan(File resDir) throws Exception {
+        File[] dirs = resDir.listFiles();
+        if (dirs == null) {
+            throw new IOException("Not a directory: " + resDir);
+        }
+        Arrays.sort(dirs);
+        for (File dir : dirs) {
+            String type = dir.getName();
+            int dash = type.indexOf('-');
+            if (dash > 0) {
+                type = type.substring(0, dash);
+            }
+            File[] files = dir.listFiles();
+            Arrays.sort(files);
+            for (File file : files) {
+                if (type.equals("values")) {
+                    scanValues(file);
+                    continue;
+                }
+                String name = file.getName();
+                add(type, name.substring(0, name.indexOf('.') > 0 ? name.indexOf('.') : name.length()));
+                if (name.endsWith(".xml")) {
+                    Matcher m = NEW_ID.matcher(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+                    while (m.find()) {
+                        add("id", m.group(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private void scanValues(File file) throws Exception {
+        Element resources = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file).getDocumentElement();
+        NodeList children = resources.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node node = children.item(i);
+            if (node.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            Element element = (Element) node;
+            String tag = element.getTagName();
+            String name = element.getAttribute("name");
+            if (tag.equals("declare-styleable")) {
+                List<String> attrs = new ArrayList<String>();
+                NodeList attrNodes = element.getElementsByTagName("attr");
+                for (int j = 0; j < attrNodes.getLength(); j++) {
+                    String attr = ((Element) attrNodes.item(j)).getAttribute("name");
+                    attrs.add(attr);
+                    if (!attr.startsWith("android:")) {
+                        add("attr", attr);
+                    }
+                }
+                mStyleables.put(name, attrs);
+            } else if (tag.equals("item")) {
+                add(element.getAttribute("type"), name);
+            } else if (tag.equals("string-array") || tag.equals("integer-array")) {
+                add("array", name);
+            } else if (tag.equals("eat-comment") || tag.equals("skip")) {
+                // not resources
+            } else {
+                add(tag, name);
+            }
+        }
+    }
+
+    private void write(File outDir, String packageName) throws IOException {
+        File dir = new File(outDir, packageName.replace('.', File.separatorChar));
+        dir.mkdirs();
+
+        Map<String, Integer> attrIds = new LinkedHashMap<String, Integer>();
+        PrintWriter out = new PrintWriter(new File(dir, "R.java"), "UTF-8");
+        try {
+            out.println("/* Generated by GenerateR from res/, do not edit. */");
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("public final class R {");
+            int typeIndex = 1;
+            for (Map.Entry<String, TreeSet<String>> type : mTypes.entrySet()) {
+                out.println("    public static final class " + type.getKey() + " {");
+                int entry = 0;
+                for (String name : type.getValue()) {
+                    int id = 0x7f000000 | (typeIndex << 16) | entry++;
+                    if (type.getKey().equals("attr")) {
+                        attrIds.put(name, id);
+                    }
+                    out.printf("        public static final int %s = 0x%08x;%n", name, id);
+                }
+                out.println("    }");
+                typeIndex++;
+            }
+
+            out.println("    public static final class styleable {");
+            for (Map.Entry<String, List<String>> styleable : mStyleables.entrySet()) {
+                StringBuilder ids = new StringBuilder();
+                for (String attr : styleable.getValue()) {
+                    if (ids.length() > 0) {
+                        ids.append(", ");
+                    }
+                    ids.append(attr.startsWith("android:") ? "android.R.attr." + attr.substring(8)
+                            : String.format("0x%08x", attrIds.get(attr)));
+                }
+                out.println("        public static final int[] " + styleable.getKey() + " = { " + ids + " };");
+                List<String> attrs = styleable.getValue();
+                for (int i = 0; i < attrs.size(); i++) {
+                    String attr = attrs.get(i).replace("android:", "android_");
+                    out.println("        public static final int " + styleable.getKey() + "_" + attr + " = " + i + ";");
+                }
+            }
+            out.println("    }");
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+}
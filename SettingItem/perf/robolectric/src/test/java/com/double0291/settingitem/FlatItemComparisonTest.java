@@ -0,0 +1,211 @@
+package com.double0291.settingitem;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import android.app.Activity;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.widget.LinearLayout;
+
+/**
+ * {@link SettingFlatItem} against the {@link SettingSimpleItem} tree it replaces, for the same row: left text, a right
+ * text that has to be ellipsized, the arrow and a single background, as inflated from XML attributes.
+ * <p/>
+ * Compared are construction, the first measure and layout of a new row, a relayout after the right text changes, and
+ * the heap a laid out page of rows keeps. Each number is checked against its budget in perf-budgets.properties, and the
+ * flat item has to stay under the tree in every one of them. The numbers come from the JVM, not from a device: the
+ * legacy Robolectric text and canvas are cheaper than the real ones, so they show the ratio, not the on-device cost.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class FlatItemComparisonTest {
+    private static final int WARMUP = 50;
+    private static final int RUNS = 200;
+
+    /**
+     * Rows of the page whose retained heap is measured, about the size of our longest settings screen
+     */
+    private static final int PAGE_ROWS = 150;
+    private static final int HEAP_SAMPLES = 5;
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private interface ItemFactory {
+        View create();
+    }
+
+    private Activity mActivity;
+    private ItemFactory mSimpleFactory;
+    private ItemFactory mFlatFactory;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).create().start().resume().get();
+        final AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.bgType, "single")
+                .addAttribute(R.attr.leftText, "@string/short_string")
+                .addAttribute(R.attr.rightText, "@string/long_string")
+                .addAttribute(R.attr.showArrow, "true")
+                .build();
+        mSimpleFactory = new ItemFactory() {
+            @Override
+            public View create() {
+                return new SettingSimpleItem(mActivity, attrs);
+            }
+        };
+        mFlatFactory = new ItemFactory() {
+            @Override
+            public View create() {
+                return new SettingFlatItem(mActivity, attrs);
+            }
+        };
+    }
+
+    private static void layoutRow(View row) {
+        row.measure(MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.AT_MOST));
+        row.layout(0, 0, WIDTH, row.getMeasuredHeight());
+    }
+
+    private static void assertCheaper(String what, long flat, long simple) {
+        System.out.println(String.format(Locale.US, "[perf] %s: flat/simple = %,d / %,d = %.2f", what, flat, simple,
+                (double) flat / simple));
+        assertTrue(what + " of SettingFlatItem is not below SettingSimpleItem", flat < simple);
+    }
+
+    private PerfBudget.Result construct(String scenario, final ItemFactory factory) {
+        final PerfBudget.Result result = PerfBudget.measure(WARMUP, RUNS, new Runnable() {
+            @Override
+            public void run() {
+                factory.create();
+            }
+        });
+        PerfBudget.check(scenario, result);
+        return result;
+    }
+
+    @Test
+    public void construction() {
+        final PerfBudget.Result simple = construct("compare.simple.construct", mSimpleFactory);
+        final PerfBudget.Result flat = construct("compare.flat.construct", mFlatFactory);
+        assertCheaper("construct nanos", flat.nanos, simple.nanos);
+        assertCheaper("construct bytes", flat.bytes, simple.bytes);
+    }
+
+    /**
+     * Every run measures and lays out a row that was never measured, like a row the page shows for the first time
+     */
+    private PerfBudget.Result firstLayout(String scenario, ItemFactory factory) {
+        final View[] rows = new View[WARMUP + RUNS];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = factory.create();
+        }
+        final PerfBudget.Result result = PerfBudget.measure(WARMUP, RUNS, new Runnable() {
+            private int mNext;
+
+            @Override
+            public void run() {
+                layoutRow(rows[mNext++]);
+            }
+        });
+        PerfBudget.check(scenario, result);
+        return result;
+    }
+
+    @Test
+    public void firstLayout() {
+        final PerfBudget.Result simple = firstLayout("compare.simple.layout", mSimpleFactory);
+        final PerfBudget.Result flat = firstLayout("compare.flat.layout", mFlatFactory);
+        assertCheaper("first layout nanos", flat.nanos, simple.nanos);
+        assertCheaper("first layout bytes", flat.bytes, simple.bytes);
+    }
+
+    /**
+     * The right text alternates between two values, so every run is a real relayout of an existing row
+     */
+    private PerfBudget.Result relayout(String scenario, final View row) {
+        layoutRow(row);
+        final PerfBudget.Result result = PerfBudget.measure(WARMUP, RUNS, new Runnable() {
+            private int mStep;
+
+            @Override
+            public void run() {
+                final CharSequence text = (mStep++ & 1) == 0 ? "On" : "Off";
+                if (row instanceof SettingFlatItem) {
+                    ((SettingFlatItem) row).setRightText(text);
+                } else {
+                    ((SettingSimpleItem) row).setRightText(text);
+                }
+                layoutRow(row);
+            }
+        });
+        PerfBudget.check(scenario, result);
+        return result;
+    }
+
+    @Test
+    public void relayout() {
+        final PerfBudget.Result simple = relayout("compare.simple.relayout", mSimpleFactory.create());
+        final PerfBudget.Result flat = relayout("compare.flat.relayout", mFlatFactory.create());
+        assertCheaper("relayout nanos", flat.nanos, simple.nanos);
+        assertCheaper("relayout bytes", flat.bytes, simple.bytes);
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Heap kept by a laid out page of {@link #PAGE_ROWS} rows, median of a few pages. The page is not attached: an
+     * attached page queues traversals on the paused main looper, which keep the previous page alive into the next
+     * sample.
+     *
+     * @return Retained bytes per row
+     */
+    private long retainedPerRow(ItemFactory factory) {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final long[] samples = new long[HEAP_SAMPLES];
+        for (int s = 0; s < samples.length; s++) {
+            final long before = usedHeap(memory);
+            final LinearLayout page = new LinearLayout(mActivity);
+            page.setOrientation(LinearLayout.VERTICAL);
+            for (int i = 0; i < PAGE_ROWS; i++) {
+                page.addView(factory.create());
+            }
+            page.measure(MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+            page.layout(0, 0, WIDTH, page.getMeasuredHeight());
+            samples[s] = (usedHeap(memory) - before) / page.getChildCount();
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    @Test
+    public void retainedHeap() {
+        // Once each first, so classes and shared caches are not counted against either
+        retainedPerRow(mSimpleFactory);
+        retainedPerRow(mFlatFactory);
+
+        final long simple = retainedPerRow(mSimpleFactory);
+        final long flat = retainedPerRow(mFlatFactory);
+        System.out.println(String.format(Locale.US, "[perf] compare.simple.retained: %,d bytes per row", simple));
+        System.out.println(String.format(Locale.US, "[perf] compare.flat.retained: %,d bytes per row", flat));
+        assertCheaper("retained bytes per row", flat, simple);
+    }
+}
@@ -0,0 +1,121 @@
+package com.double0291.settingitem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.ParameterizedRobolectricTestRunner.Parameters;
+import org.robolectric.Robolectric;
+import org.robolectric.android.AttributeSetBuilder;
+
+import android.app.Activity;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+
+/**
+ * Construction cost of every bgType / left icon / arrow combination of {@link SettingSimpleItem} and of every bgType /
+ * left icon combination of {@link SettingSwitchItem}, as inflated from XML attributes, plus inflating the whole
+ * activity_main.xml. Each scenario is checked against its budget in perf-budgets.properties.
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+public class InflationBudgetTest {
+    private static final String[] BG_TYPES = { "none", "single", "top", "middle", "bottom" };
+
+    private static final int WARMUP = 20;
+    private static final int RUNS = 50;
+
+    private static final int KIND_SIMPLE = 0;
+    private static final int KIND_SWITCH = 1;
+    private static final int KIND_LAYOUT = 2;
+
+    @Parameters(name = "{0}")
+    public static List<Object[]> scenarios() {
+        final List<Object[]> scenarios = new ArrayList<Object[]>();
+        for (int bgType = 0; bgType < BG_TYPES.length; bgType++) {
+            for (int icon = 0; icon < 2; icon++) {
+                for (int arrow = 0; arrow < 2; arrow++) {
+                    scenarios.add(new Object[] {
+                            "simple." + BG_TYPES[bgType] + (icon == 1 ? ".icon" : ".noicon")
+                                    + (arrow == 1 ? ".arrow" : ".noarrow"),
+                            KIND_SIMPLE, bgType, icon == 1, arrow == 1 });
+                }
+                scenarios.add(new Object[] { "switch." + BG_TYPES[bgType] + (icon == 1 ? ".icon" : ".noicon"),
+                        KIND_SWITCH, bgType, icon == 1, false });
+            }
+        }
+        scenarios.add(new Object[] { "layout.activity_main", KIND_LAYOUT, 0, false, false });
+        return scenarios;
+    }
+
+    private final String mScenario;
+    private final int mKind;
+    private final int mBgType;
+    private final boolean mIcon;
+    private final boolean mArrow;
+
+    private Activity mActivity;
+
+    public InflationBudgetTest(String scenario, int kind, int bgType, boolean icon, boolean arrow) {
+        mScenario = scenario;
+        mKind = kind;
+        mBgType = bgType;
+        mIcon = icon;
+        mArrow = arrow;
+    }
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).create().get();
+    }
+
+    /**
+     * The attributes a layout would pass for this scenario
+     */
+    private AttributeSet buildAttributes() {
+        final AttributeSetBuilder builder = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.bgType, BG_TYPES[mBgType]);
+        if (mIcon) {
+            builder.addAttribute(R.attr.leftIcon, "@drawable/img_funny")
+                    .addAttribute(R.attr.leftIconWidth, "30dp")
+                    .addAttribute(R.attr.leftIconHeight, "30dp");
+        }
+        if (mKind == KIND_SWITCH) {
+            builder.addAttribute(R.attr.switchText, "@string/short_string");
+        } else {
+            builder.addAttribute(R.attr.leftText, "@string/short_string")
+                    .addAttribute(R.attr.rightText, "@string/long_string")
+                    .addAttribute(R.attr.showArrow, Boolean.toString(mArrow));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void construct() {
+        final Runnable scenario;
+        if (mKind == KIND_LAYOUT) {
+            final LayoutInflater inflater = LayoutInflater.from(mActivity);
+            scenario = new Runnable() {
+                @Override
+                public void run() {
+                    inflater.inflate(R.layout.activity_main, null, false);
+                }
+            };
+        } else {
+            final AttributeSet attrs = buildAttributes();
+            scenario = new Runnable() {
+                @Override
+                public void run() {
+                    if (mKind == KIND_SWITCH) {
+                        new SettingSwitchItem(mActivity, attrs);
+                    } else {
+                        new SettingSimpleItem(mActivity, attrs);
+                    }
+                }
+            };
+        }
+        PerfBudget.check(mScenario, PerfBudget.measure(WARMUP, RUNS, scenario));
+    }
+}
@@ -0,0 +1,153 @@
+package com.double0291.settingitem;
+
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Measures a scenario on the current thread and checks it against the budget stored for it in
+ * src/test/resources/perf-budgets.properties.
+ * <p/>
+ * A scenario is run a number of times after a warm-up; the median wall time and the median number of bytes allocated by
+ * the thread per run are compared with {@code <scenario>.nanos} and {@code <scenario>.bytes}. Running the suite with
+ * {@code -Dperf.record=true} stores the measured medians plus headroom instead of checking them; commit the updated file
+ * together with the change that moved the numbers. A scenario without a stored budget fails, so a new scenario cannot
+ * be added without its budget.
+ */
+final class PerfBudget {
+    private static final File BUDGET_FILE = new File("src/test/resources/perf-budgets.properties");
+    private static final boolean RECORD = Boolean.getBoolean("perf.record");
+
+    /**
+     * Wall time on a shared JVM is noisy, the same scenario often takes twice as long from one run to the next.
+     * Allocations are close to deterministic, the fixed slack covers what the JIT does or does not eliminate in
+     * scenarios that only allocate a few objects.
+     */
+    private static final double NANOS_HEADROOM = 3.0;
+    private static final double BYTES_HEADROOM = 1.25;
+    private static final long BYTES_SLACK = 1024;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static final class Result {
+        final long nanos;
+        final long bytes;
+
+        Result(long nanos, long bytes) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+
+    private PerfBudget() {
+    }
+
+    /**
+     * @param warmup   Runs that are not measured, to get the classes loaded and the JIT going
+     * @param runs     Measured runs
+     * @param scenario One run of the scenario
+     * @return Median wall time and median allocated bytes of one run
+     */
+    static Result measure(int warmup, int runs, Runnable scenario) {
+        for (int i = 0; i < warmup; i++) {
+            scenario.run();
+        }
+
+        final long thread = Thread.currentThread().getId();
+        final long[] nanos = new long[runs];
+        final long[] bytes = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            final long startBytes = THREADS.getThreadAllocatedBytes(thread);
+            final long start = System.nanoTime();
+            scenario.run();
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = THREADS.getThreadAllocatedBytes(thread) - startBytes;
+        }
+        return new Result(median(nanos), median(bytes));
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    /**
+     * Fails if result is over the stored budget of scenario, or stores a new budget in record mode
+     */
+    static void check(String scenario, Result result) {
+        final String measured = String.format(Locale.US, "%s: %,d ns, %,d bytes", scenario, result.nanos, result.bytes);
+        System.out.println("[perf] " + measured);
+
+        if (RECORD) {
+            record(scenario, result);
+            return;
+        }
+
+        final Properties budgets = load();
+        final String nanos = budgets.getProperty(scenario + ".nanos");
+        final String bytes = budgets.getProperty(scenario + ".bytes");
+        if (nanos == null || bytes == null) {
+            fail("No budget stored for " + measured + "; record one with -Dperf.record=true");
+        }
+
+        final long maxNanos = Long.parseLong(nanos.trim());
+        final long maxBytes = Long.parseLong(bytes.trim());
+        if (result.nanos > maxNanos) {
+            fail(String.format(Locale.US, "%s is over the time budget of %,d ns", measured, maxNanos));
+        }
+        if (result.bytes > maxBytes) {
+            fail(String.format(Locale.US, "%s is over the allocation budget of %,d bytes", measured, maxBytes));
+        }
+    }
+
+    private static Properties load() {
+        final Properties budgets = new Properties();
+        if (!BUDGET_FILE.exists()) {
+            return budgets;
+        }
+        try {
+            final InputStream in = new FileInputStream(BUDGET_FILE);
+            try {
+                budgets.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + BUDGET_FILE, e);
+        }
+        return budgets;
+    }
+
+    private static synchronized void record(String scenario, Result result) {
+        final Properties budgets = load();
+        budgets.setProperty(scenario + ".nanos", Long.toString((long) (result.nanos * NANOS_HEADROOM)));
+        budgets.setProperty(scenario + ".bytes", Long.toString((long) (result.bytes * BYTES_HEADROOM) + BYTES_SLACK));
+
+        // Sorted and without a timestamp, so re-recording only shows the budgets that moved in a diff
+        try {
+            final PrintWriter out = new PrintWriter(BUDGET_FILE, "ISO-8859-1");
+            try {
+                out.println("# Per-scenario budgets of the Robolectric perf suites, see PerfBudget.");
+                out.println("# <scenario>.nanos: median wall time of one run, <scenario>.bytes: median bytes allocated.");
+                out.println("# Re-record with: mvn -B test -Dperf.record=true");
+                for (String key : new TreeSet<String>(budgets.stringPropertyNames())) {
+                    out.println(key + "=" + budgets.getProperty(key));
+                }
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write " + BUDGET_FILE, e);
+        }
+    }
+}
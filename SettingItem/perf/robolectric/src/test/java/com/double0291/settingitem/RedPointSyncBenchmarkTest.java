@@ -0,0 +1,216 @@
+package com.double0291.settingitem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import android.app.Activity;
+import android.content.Context;
+import android.database.DataSetObserver;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.ListView;
+
+/**
+ * A full page of red points applied at once on 500 rows, through {@link SettingRedPointSync} on a plain container and
+ * through {@link SettingItemAdapter#setRedPoints(SparseIntArray)} on a list: only the rows whose type really changes
+ * are touched, and the whole batch asks the page for at most one layout.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RedPointSyncBenchmarkTest implements SettingItemConstants {
+    private static final int ROWS = 500;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    /**
+     * Counts the layout requests that reach the page
+     */
+    private static final class CountingFrame extends FrameLayout {
+        int layoutRequests;
+
+        CountingFrame(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void requestLayout() {
+            layoutRequests++;
+            super.requestLayout();
+        }
+    }
+
+    private Activity mActivity;
+    private CountingFrame mPage;
+
+    /**
+     * Every other id gets a dot, the rest are listed with the type they already have
+     */
+    private SparseIntArray mEvenDots;
+    private SparseIntArray mAllNone;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).create().start().resume().get();
+        mPage = new CountingFrame(mActivity);
+        mActivity.setContentView(mPage);
+
+        mEvenDots = new SparseIntArray(ROWS);
+        mAllNone = new SparseIntArray(ROWS);
+        for (int id = 1; id <= ROWS; id++) {
+            mEvenDots.put(id, id % 2 == 0 ? RED_POINT_TYPE_DOT : RED_POINT_TYPE_NONE);
+            mAllNone.put(id, RED_POINT_TYPE_NONE);
+        }
+    }
+
+    private void layoutPage() {
+        mPage.measure(MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+        mPage.layout(0, 0, WIDTH, HEIGHT);
+        mPage.layoutRequests = 0;
+    }
+
+    private LinearLayout addContainer() {
+        final LinearLayout container = new LinearLayout(mActivity);
+        container.setOrientation(LinearLayout.VERTICAL);
+        for (int id = 1; id <= ROWS; id++) {
+            final SettingSimpleItem item = new SettingSimpleItem(mActivity);
+            item.setId(id);
+            item.setLeftText("Setting " + id);
+            item.setRightText("Value");
+            container.addView(item);
+        }
+        mPage.addView(container);
+        layoutPage();
+        return container;
+    }
+
+    private SettingItemAdapter addList(ListView listView) {
+        final List<SettingItemModel> models = new ArrayList<SettingItemModel>(ROWS);
+        for (int id = 1; id <= ROWS; id++) {
+            final SettingItemModel model = new SettingItemModel(SettingItemModel.TYPE_SIMPLE, id);
+            model.setLeftText("Setting " + id);
+            model.setRightText("Value");
+            models.add(model);
+        }
+        final SettingItemAdapter adapter = new SettingItemAdapter(mActivity, models);
+        listView.setAdapter(adapter);
+        mPage.addView(listView);
+        layoutPage();
+        return adapter;
+    }
+
+    /**
+     * Rows that ask for a layout are exactly the rows whose red point changed to a dot
+     *
+     * @param ids Id each row is bound to, in the order of rows
+     */
+    private static void assertOnlyEvenRowsRequestLayout(List<View> rows, int[] ids) {
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals("Row " + ids[i], ids[i] % 2 == 0, rows.get(i).isLayoutRequested());
+        }
+    }
+
+    @Test
+    public void syncTouchesOnlyChangedRows() {
+        final LinearLayout container = addContainer();
+
+        assertEquals(ROWS / 2, SettingRedPointSync.apply(container, mEvenDots));
+
+        final List<View> rows = new ArrayList<View>(ROWS);
+        final int[] ids = new int[ROWS];
+        for (int i = 0; i < container.getChildCount(); i++) {
+            rows.add(container.getChildAt(i));
+            ids[i] = container.getChildAt(i).getId();
+        }
+        assertOnlyEvenRowsRequestLayout(rows, ids);
+        assertEquals(1, mPage.layoutRequests);
+
+        // Nothing changes the second time
+        layoutPage();
+        assertEquals(0, SettingRedPointSync.apply(container, mEvenDots));
+        assertEquals(0, mPage.layoutRequests);
+    }
+
+    @Test
+    public void adapterUpdatesOnlyChangedRowsInPlace() {
+        final ListView listView = new ListView(mActivity);
+        final SettingItemAdapter adapter = addList(listView);
+        final int[] dataSetChanges = new int[1];
+        adapter.registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                dataSetChanges[0]++;
+            }
+        });
+
+        final List<View> rows = new ArrayList<View>();
+        final int[] ids = new int[listView.getChildCount()];
+        for (int i = 0; i < listView.getChildCount(); i++) {
+            rows.add(listView.getChildAt(i));
+            ids[i] = adapter.getItem(listView.getFirstVisiblePosition() + i).getId();
+        }
+        assertTrue("No rows on screen", rows.size() > 1);
+
+        assertEquals(ROWS / 2, adapter.setRedPoints(mEvenDots));
+
+        // The rows on screen are updated where they are, nothing is rebound
+        assertEquals(0, dataSetChanges[0]);
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i), listView.getChildAt(i));
+        }
+        assertOnlyEvenRowsRequestLayout(rows, ids);
+        assertEquals(1, mPage.layoutRequests);
+    }
+
+    @Test
+    public void adapterDoesNotKeepDroppedRows() {
+        final ListView listView = new ListView(mActivity);
+        final SettingItemAdapter adapter = addList(listView);
+
+        // A row the list no longer holds, e.g. trimmed from its scrap heap
+        WeakReference<View> dropped = new WeakReference<View>(adapter.getView(0, null, listView));
+        for (int i = 0; i < 10 && dropped.get() != null; i++) {
+            System.gc();
+        }
+        assertNull("The adapter keeps rows the list dropped", dropped.get());
+
+        assertEquals(ROWS / 2, adapter.setRedPoints(mEvenDots));
+    }
+
+    @Test
+    public void syncBudget() {
+        final LinearLayout container = addContainer();
+        PerfBudget.check("redpoint.sync500", PerfBudget.measure(20, 100, new Runnable() {
+            @Override
+            public void run() {
+                SettingRedPointSync.apply(container, mEvenDots);
+                SettingRedPointSync.apply(container, mAllNone);
+            }
+        }));
+    }
+
+    @Test
+    public void adapterBudget() {
+        final SettingItemAdapter adapter = addList(new ListView(mActivity));
+        PerfBudget.check("redpoint.adapter500", PerfBudget.measure(20, 100, new Runnable() {
+            @Override
+            public void run() {
+                adapter.setRedPoints(mEvenDots);
+                adapter.setRedPoints(mAllNone);
+            }
+        }));
+    }
+}
@@ -0,0 +1,145 @@
+package com.double0291.settingitem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+/**
+ * Switching the red point between NONE, DOT and NEW must neither touch the view tree nor keep memory: 10,000 switches on
+ * attached rows leave the number of views in the tree and the retained heap where they were.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RedPointToggleTest implements SettingItemConstants {
+    private static final int TOGGLES = 10000;
+    private static final int[] TYPES = { RED_POINT_TYPE_DOT, RED_POINT_TYPE_NEW, RED_POINT_TYPE_NONE };
+
+    /**
+     * Retained heap may move a little with whatever Robolectric itself keeps, but not by anything proportional to the
+     * number of toggles
+     */
+    private static final long MAX_RETAINED_GROWTH = 256 * 1024;
+
+    private LinearLayout mContainer;
+    private SettingSimpleItem mSimpleItem;
+    private SettingFlatItem mFlatItem;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.buildActivity(Activity.class).create().start().resume().get();
+        final LinearLayout container = new LinearLayout(activity);
+        container.setOrientation(LinearLayout.VERTICAL);
+        mContainer = container;
+        mSimpleItem = new SettingSimpleItem(activity);
+        mSimpleItem.setLeftText("Setting");
+        mSimpleItem.setRightText("Value");
+        mFlatItem = new SettingFlatItem(activity);
+        mFlatItem.setLeftText("Setting");
+        mFlatItem.setRightText("Value");
+        container.addView(mSimpleItem);
+        container.addView(mFlatItem);
+        activity.setContentView(container);
+
+        container.measure(MeasureSpec.makeMeasureSpec(1080, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(1920, MeasureSpec.AT_MOST));
+        container.layout(0, 0, 1080, container.getMeasuredHeight());
+    }
+
+    private static int countViews(View view) {
+        int count = 1;
+        if (view instanceof ViewGroup) {
+            final ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                count += countViews(group.getChildAt(i));
+            }
+        }
+        return count;
+    }
+
+    private static long retainedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    public void simpleItemTogglesKeepChildCountAndHeap() {
+        assertToggles(new Toggle() {
+            @Override
+            public void set(int type) {
+                mSimpleItem.setRedPointType(type);
+            }
+        });
+    }
+
+    @Test
+    public void flatItemTogglesKeepChildCountAndHeap() {
+        assertToggles(new Toggle() {
+            @Override
+            public void set(int type) {
+                mFlatItem.setRedPointType(type);
+            }
+        });
+    }
+
+    private interface Toggle {
+        void set(int type);
+    }
+
+    private void assertToggles(Toggle toggle) {
+        // One round first, so drawables and metrics that are created on first use already exist
+        for (int type : TYPES) {
+            toggle.set(type);
+        }
+        final int views = countViews(mContainer);
+        final long heap = retainedHeap();
+
+        for (int i = 0; i < TOGGLES; i++) {
+            toggle.set(TYPES[i % TYPES.length]);
+        }
+
+        assertEquals(views, countViews(mContainer));
+        final long growth = retainedHeap() - heap;
+        assertTrue("Retained heap grew by " + growth + " bytes over " + TOGGLES + " toggles",
+                growth < MAX_RETAINED_GROWTH);
+    }
+
+    @Test
+    public void batchDefersLayoutToCommit() {
+        assertFalse(mSimpleItem.isLayoutRequested());
+
+        mSimpleItem.beginUpdate();
+        mSimpleItem.setRedPointType(RED_POINT_TYPE_NEW);
+        mSimpleItem.setRightText("Other");
+        assertFalse(mSimpleItem.isLayoutRequested());
+
+        mSimpleItem.commitUpdate();
+        assertTrue(mSimpleItem.isLayoutRequested());
+        assertEquals(RED_POINT_TYPE_NEW, mSimpleItem.getRedPointType());
+    }
+
+    @Test
+    public void toggleBudget() {
+        PerfBudget.check("redpoint.toggle", PerfBudget.measure(100, 200, new Runnable() {
+            @Override
+            public void run() {
+                for (int type : TYPES) {
+                    mSimpleItem.setRedPointType(type);
+                }
+            }
+        }));
+    }
+}
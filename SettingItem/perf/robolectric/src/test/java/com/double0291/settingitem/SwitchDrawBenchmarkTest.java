@@ -0,0 +1,112 @@
+package com.double0291.settingitem;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadow.api.Shadow;
+import org.robolectric.shadows.ShadowCanvas;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View.MeasureSpec;
+
+/**
+ * Per-frame cost of {@link Switch}: one draw of a settled switch, and one drag step (a move event followed by the
+ * redraw it causes).
+ * <p/>
+ * The suite runs in legacy resources mode, which Robolectric only supports up to API 28, so drawing goes through the
+ * legacy shadow canvas and not Skia: the numbers include the canvas recording each call, and mostly move with the
+ * number of draw calls and with what the switch allocates per frame. The recorded history is cleared every frame so it
+ * does not grow over the runs.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwitchDrawBenchmarkTest {
+    private static final int WARMUP = 500;
+    private static final int RUNS = 2000;
+
+    private SettingSwitchItem mItem;
+    private Switch mSwitch;
+    private Bitmap mBitmap;
+    private Canvas mCanvas;
+    private ShadowCanvas mShadowCanvas;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.buildActivity(Activity.class).create().start().resume().get();
+        mItem = new SettingSwitchItem(activity);
+        mItem.setText("Setting");
+        activity.setContentView(mItem);
+
+        mItem.measure(MeasureSpec.makeMeasureSpec(1080, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(1920, MeasureSpec.AT_MOST));
+        mItem.layout(0, 0, 1080, mItem.getMeasuredHeight());
+
+        mSwitch = (Switch) mItem.findViewById(R.id.setting_item_switch);
+        mBitmap = Bitmap.createBitmap(mSwitch.getWidth(), mSwitch.getHeight(), Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mBitmap);
+        mShadowCanvas = Shadow.extract(mCanvas);
+    }
+
+    @After
+    public void tearDown() {
+        mBitmap.recycle();
+    }
+
+    @Test
+    public void drawBudget() {
+        PerfBudget.check("switch.draw", PerfBudget.measure(WARMUP, RUNS, new Runnable() {
+            @Override
+            public void run() {
+                mShadowCanvas.resetCanvasHistory();
+                mSwitch.draw(mCanvas);
+            }
+        }));
+    }
+
+    @Test
+    public void dragBudget() {
+        final long downTime = SystemClock.uptimeMillis();
+        final float y = mSwitch.getHeight() / 2f;
+        // The thumb starts at the off position, on the left of the switch
+        final float startX = mSwitch.getPaddingLeft() + 1;
+        final MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, startX, y, 0);
+        assertTrue(mSwitch.onTouchEvent(down));
+        down.recycle();
+
+        // The first move beyond the touch slop starts the drag, the following ones move the thumb
+        final float range = mSwitch.getWidth() / 2f;
+        final MotionEvent start = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_MOVE, startX + range, y,
+                0);
+        assertTrue(mSwitch.onTouchEvent(start));
+        start.recycle();
+
+        // Events are created up front and reused, so allocations are only the switch's own; alternating between
+        // the two ends makes every step move the thumb and invalidate
+        final MotionEvent[] moves = { MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_MOVE, startX, y, 0),
+                MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_MOVE, startX + range, y, 0) };
+        try {
+            PerfBudget.check("switch.drag", PerfBudget.measure(WARMUP, RUNS, new Runnable() {
+                private int mStep;
+
+                @Override
+                public void run() {
+                    mSwitch.onTouchEvent(moves[mStep++ & 1]);
+                    mShadowCanvas.resetCanvasHistory();
+                    mSwitch.draw(mCanvas);
+                }
+            }));
+        } finally {
+            for (MotionEvent move : moves) {
+                move.recycle();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.double0291.settingitem;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.util.SparseArray;
+
+/**
+ * Ľڻ档
+ * <p>
+ * ÿһжͨgetResources().getDrawable()ȡcommon_strip_setting_*skin_setting_strip_*
+ * ﰴⱣһμصõ{@link Drawable.ConstantState}ֱ֮newDrawable()ʡԴҺͽ
+ * ԴidѾbgTypeԼpressed/unpressedֻҪٰ֣ãĻܶȣ仯ʱֻؽĻ棬{@link SettingThemeCache}
+ * </p>
+ * ֻUI߳ʹá
+ */
+public final class SettingDrawableCache {
+    private static final SettingThemeCache<SparseArray<Drawable.ConstantState>> sCache = new SettingThemeCache<SparseArray<Drawable.ConstantState>>(
+            new SettingThemeCache.Factory<SparseArray<Drawable.ConstantState>>() {
+
+                @Override
+                public SparseArray<Drawable.ConstantState> create(Context context) {
+                    return new SparseArray<Drawable.ConstantState>();
+                }
+            });
+
+    private SettingDrawableCache() {
+    }
+
+    /**
+     * ȡԴӦDrawableÿηµʵͬһConstantState
+     *
+     * @param context
+     * @param resId
+     * @return
+     */
+    public static Drawable getDrawable(Context context, int resId) {
+        final Resources res = context.getResources();
+        final SparseArray<Drawable.ConstantState> states = sCache.get(context);
+
+        Drawable.ConstantState state = states.get(resId);
+        if (state != null) {
+            return state.newDrawable(res);
+        }
+
+        Drawable drawable = res.getDrawable(resId);
+        state = drawable.getConstantState();
+        if (state != null) {
+            states.put(resId, state);
+        }
+        return drawable;
+    }
+
+    /**
+     * ջ
+     */
+    public static void clear() {
+        sCache.clear();
+    }
+}
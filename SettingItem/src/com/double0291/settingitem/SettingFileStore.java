@@ -0,0 +1,95 @@
+package com.double0291.settingitem;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import android.content.Context;
+import android.support.v4.util.AtomicFile;
+
+/**
+ * ڱļ{@link SettingStore}ļʽ{@link Properties}
+ * <p>
+ * ʹ{@link AtomicFile}д룺д滻дһ̱ɱҲᶪһݡ
+ * ͨContextļʱfilesĿ¼Ҳں̵̨߳һζдʱŻȡ챾κI/O
+ * </p>
+ */
+public class SettingFileStore implements SettingStore {
+    private final Context mContext;
+    private final String mName;
+    private File mFile;
+
+    /**
+     * @param context
+     * @param name
+     *            filesĿ¼µļ
+     */
+    public SettingFileStore(Context context, String name) {
+        mContext = context.getApplicationContext();
+        mName = name;
+    }
+
+    /**
+     * @param file
+     *            ״̬ļ
+     */
+    public SettingFileStore(File file) {
+        mContext = null;
+        mName = null;
+        mFile = file;
+    }
+
+    private synchronized AtomicFile getAtomicFile() {
+        if (mFile == null) {
+            mFile = new File(mContext.getFilesDir(), mName);
+        }
+        return new AtomicFile(mFile);
+    }
+
+    @Override
+    public Map<String, String> load() throws IOException {
+        final Properties properties = new Properties();
+        FileInputStream in;
+        try {
+            in = getAtomicFile().openRead();
+        } catch (FileNotFoundException e) {
+            // ûб
+            return new HashMap<String, String>();
+        }
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+
+        final HashMap<String, String> values = new HashMap<String, String>(properties.size());
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        return values;
+    }
+
+    @Override
+    public void save(Map<String, String> values) throws IOException {
+        final Properties properties = new Properties();
+        properties.putAll(values);
+
+        final AtomicFile file = getAtomicFile();
+        final FileOutputStream out = file.startWrite();
+        try {
+            properties.store(out, null);
+        } catch (IOException e) {
+            file.failWrite(out);
+            throw e;
+        } catch (RuntimeException e) {
+            file.failWrite(out);
+            throw e;
+        }
+        file.finishWrite(out);
+    }
+}
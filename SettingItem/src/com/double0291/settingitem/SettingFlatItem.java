@@ -0,0 +1,738 @@
+package com.double0291.settingitem;
+
+import java.util.List;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * <p>{@link SettingSimpleItem}ıƽʵ֣ȫһ£
+ * <pre class="prettyprint">
+ *  -----------------------------------------------------
+ * |icon| + || + |ұicon| + |ұ| + |ͷ|
+ *  -----------------------------------------------------
+ * </pre>
+ * <p>
+ * ڲǶRelativeLayoutTextViewݶ{@link #onDraw(Canvas)}Լƣʹû{@link Layout}
+ * ûViewmeasureֻһ飬ʺܶҳ档</p>
+ * ÷
+ * <pre class="prettyprint">
+ * &lt;com.double0291.settingitem.SettingFlatItem
+ *           android:layout_width="match_parent"
+ *           android:layout_height="wrap_content"
+ *           settingItem:bgType="single"
+ *           settingItem:leftText=""
+ *           settingItem:rightText=""
+ *           settingItem:showArrow="true"/&gt;
+ * </pre>
+ */
+public class SettingFlatItem extends View implements SettingItemConstants {
+    private CharSequence mLeftText;
+    private Drawable mLeftIcon;
+    private int mLeftIconWidth;
+    private int mLeftIconHeight;
+
+    private CharSequence mRightText;
+    private Drawable mRightIcon;
+    private int mRightIconWidth;
+    private int mRightIconHeight;
+    private int mRightTextLeftPadding;
+
+    private int mRedPointType = RED_POINT_TYPE_NONE;
+    private int mRedPointMargin;
+    private int mRedPointWidth;
+
+    private boolean mShowArrow;
+    private Drawable mArrow;
+
+    private int mItemHeight;
+    private final int mDefaultItemHeight;
+    private int mPadding;
+    private int mBgType;
+
+    /**
+     * ΪtrueʱδµıָԼ{@link SettingOverdraw}
+     */
+    private boolean mSkipUnpressedBackground;
+    /**
+     * һñʱǷ{@link SettingItemGroup}
+     */
+    private boolean mInGroup;
+
+    private final SettingWidthAllocator mWidthAllocator;
+
+    private final TextPaint mLeftPaint;
+    private final TextPaint mRightPaint;
+
+    /**
+     * Layoutֻֻ߿ÿȱ仯ʱؽ
+     */
+    private Layout mLeftLayout;
+    private Layout mRightLayout;
+    private BoringLayout.Metrics mBoring;
+    private boolean mLayoutDirty = true;
+    private int mLayoutWidth = -1;
+
+    /**
+     * µǶײ0ʱֻ¼Ķ{@link #commitUpdate()}ʱͳһ²
+     */
+    private int mUpdateDepth;
+
+    /**
+     * һ{@link #bindModel(SettingItemModel)}󶨵model֮ͨsetter޸ĵֻͬmodel
+     */
+    private SettingItemModel mBoundModel;
+
+    /**
+     * onMeasureʱõĻλãonDrawֻ
+     */
+    private int mLeftTextX;
+    private int mRightIconX;
+    private int mRightTextX;
+    private int mArrowX;
+    private int mRedPointRight;
+
+    public SettingFlatItem(Context context) {
+        this(context, null);
+    }
+
+    public SettingFlatItem(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        final SettingItemStyle style = SettingItemStyle.get(context);
+        mPadding = style.getPadding();
+        mDefaultItemHeight = style.getDefaultHeight();
+
+        final float density = getResources().getDisplayMetrics().density;
+        mWidthAllocator = new SettingWidthAllocator(mPadding, style.getRightIconMaxWidth(), style.getArrowMaxWidth());
+        mArrow = attachDrawable(null, style.newArrowDrawable(getResources()));
+
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SettingItem);
+
+        // ûʾָItem߶ȣȡĬϸ߶
+        mItemHeight = a.getDimensionPixelSize(R.styleable.SettingItem_customHeight, mDefaultItemHeight);
+
+        mLeftText = a.getString(R.styleable.SettingItem_leftText);
+        mLeftIcon = attachDrawable(null, a.getDrawable(R.styleable.SettingItem_leftIcon));
+        mLeftIconWidth = a.getDimensionPixelSize(R.styleable.SettingItem_leftIconWidth, 0);
+        mLeftIconHeight = Math.min(mItemHeight, a.getDimensionPixelSize(R.styleable.SettingItem_leftIconHeight, 0));
+
+        mRightText = a.getString(R.styleable.SettingItem_rightText);
+        mRightTextLeftPadding = a.getDimensionPixelSize(R.styleable.SettingItem_rightTextLeftPadding, 0);
+        mRightIcon = attachDrawable(null, a.getDrawable(R.styleable.SettingItem_rightIcon));
+        mRightIconWidth = a.getDimensionPixelSize(R.styleable.SettingItem_rightIconWidth, 0);
+        mRightIconHeight = Math.min(mItemHeight, a.getDimensionPixelSize(R.styleable.SettingItem_rightIconHeight, 0));
+
+        mShowArrow = a.getBoolean(R.styleable.SettingItem_showArrow, true);
+
+        mBgType = a.getInt(R.styleable.SettingItem_bgType, BG_TYPE_NONE);
+
+        a.recycle();
+
+        mLeftPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mLeftPaint.density = density;
+        mLeftPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 16, getResources()
+                .getDisplayMetrics()));
+        mLeftPaint.setColor(style.getBlackColor());
+
+        mRightPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mRightPaint.density = density;
+        mRightPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14, getResources()
+                .getDisplayMetrics()));
+        mRightPaint.setColor(style.getGrayColor());
+
+        // õĻϰʶ˳
+        setFocusable(true);
+
+        // õĻselector
+        setClickable(true);
+
+        updateContentDescription();
+
+        // 
+        if (mBgType != BG_TYPE_NONE) {
+            setBackgroundDrawable(getItemBackground());
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED) {
+            width = getResources().getDisplayMetrics().widthPixels;
+        }
+        setMeasuredDimension(width, mItemHeight);
+
+        if (mLayoutDirty || mLayoutWidth != width) {
+            buildLayouts(width);
+        }
+    }
+
+    /**
+     * Զ߶
+     *
+     * @param height
+     */
+    public void setCustomHeight(int height) {
+        if (height > 0) {
+            mItemHeight = height;
+            mLeftIconHeight = Math.min(mItemHeight, mLeftIconHeight);
+            mRightIconHeight = Math.min(mItemHeight, mRightIconHeight);
+            requestLayout();
+        }
+    }
+
+    public int getBackgroundResId(int bgType) {
+        switch (bgType) {
+        case BG_TYPE_SINGLE:
+            return R.drawable.common_strip_setting_bg;
+        case BG_TYPE_TOP:
+            return R.drawable.common_strip_setting_top;
+        case BG_TYPE_MIDDLE:
+            return R.drawable.common_strip_setting_middle;
+        case BG_TYPE_BOTTOM:
+            return R.drawable.common_strip_setting_bottom;
+        default:
+            return R.drawable.common_strip_setting_bg;
+        }
+    }
+
+    /**
+     * ñ֣modelʱͬʱ޸model
+     *
+     * @param text
+     */
+    public void setLeftText(CharSequence text) {
+        if (!TextUtils.isEmpty(text)) {
+            mLeftText = text;
+            updateContentDescription();
+            invalidateLayouts();
+            if (mBoundModel != null) {
+                mBoundModel.setLeftText(mLeftText);
+            }
+        }
+    }
+
+    /**
+     * ñicon
+     *
+     * @param drawable
+     *            drawable Ϊnull,ԭicon
+     */
+    public void setLeftIcon(Drawable drawable) {
+        setLeftIcon(drawable, 0, 0);
+    }
+
+    /**
+     * ñiconֶָiconĿߣiconWidthiconHeightΪ0ʾͼƬԭ
+     *
+     * @param drawable
+     * @param iconWidth
+     * @param iconHeight
+     */
+    public void setLeftIcon(Drawable drawable, int iconWidth, int iconHeight) {
+        if (iconWidth < 0 || iconHeight < 0) {
+            return;
+        }
+        mLeftIcon = attachDrawable(mLeftIcon, drawable);
+        mLeftIconWidth = iconWidth;
+        mLeftIconHeight = Math.min(mItemHeight, iconHeight);
+        invalidateLayouts();
+    }
+
+    /**
+     * ñҲ֣modelʱͬʱ޸model
+     *
+     * @param text
+     */
+    public void setRightText(CharSequence text) {
+        mRightText = text;
+        updateContentDescription();
+        invalidateLayouts();
+        if (mBoundModel != null) {
+            mBoundModel.setRightText(mRightText);
+        }
+    }
+
+    /**
+     * ñҲicon
+     *
+     * @param drawable
+     */
+    public void setRightIcon(Drawable drawable) {
+        setRightIcon(drawable, 0, 0);
+    }
+
+    /**
+     * ñҲiconֶָiconĿ iconWidthiconHeightΪ0drawable
+     *
+     * @param drawable
+     * @param iconWidth
+     * @param iconHeight
+     */
+    public void setRightIcon(Drawable drawable, int iconWidth, int iconHeight) {
+        if (iconWidth < 0 || iconHeight < 0) {
+            return;
+        }
+        mRightIcon = attachDrawable(mRightIcon, drawable);
+        mRightIconWidth = iconWidth;
+        mRightIconHeight = Math.min(mItemHeight, iconHeight);
+        invalidateLayouts();
+    }
+
+    /**
+     * ú
+     *
+     * @param type
+     *            ȡֵΪ {@link #RED_POINT_TYPE_NONE}, {@link #RED_POINT_TYPE_DOT}, {@link #RED_POINT_TYPE_NEW}
+     */
+    public void setRedPointType(int type) {
+        if (type != RED_POINT_TYPE_NONE && type != RED_POINT_TYPE_DOT && type != RED_POINT_TYPE_NEW) {
+            return;
+        }
+        if (type == mRedPointType) {
+            return;
+        }
+
+        mRedPointType = type;
+        mRedPointMargin = SettingRedPoint.getMargin(getResources(), type);
+        mRedPointWidth = SettingRedPoint.getWidth(getResources(), type);
+        invalidateLayouts();
+    }
+
+    /**
+     * ȡǰĺ
+     *
+     * @return {@link #RED_POINT_TYPE_NONE}, {@link #RED_POINT_TYPE_DOT}  {@link #RED_POINT_TYPE_NEW}
+     */
+    public int getRedPointType() {
+        return mRedPointType;
+    }
+
+    public void clearRedPoint() {
+        setRedPointType(RED_POINT_TYPE_NONE);
+    }
+
+    /**
+     * Ƿʾҵļͷ
+     *
+     * @param show
+     *            trueʾfalseʾ
+     */
+    public void showArrow(boolean show) {
+        if (mShowArrow != show) {
+            mShowArrow = show;
+            invalidateLayouts();
+        }
+    }
+
+    /**
+     * ҵļͷicon.
+     *
+     * @param drawable
+     */
+    public void setArrowIcon(Drawable drawable) {
+        mArrow = attachDrawable(mArrow, drawable);
+        invalidateLayouts();
+    }
+
+    /**
+     * ñselector
+     *
+     * @param bgType
+     *            ȡֵΪ {@link #BG_TYPE_SINGLE}, {@link #BG_TYPE_TOP}, {@link #BG_TYPE_MIDDLE}, or {@link #BG_TYPE_BOTTOM}
+     */
+    public void setBgType(int bgType) {
+        if (bgType != BG_TYPE_SINGLE && bgType != BG_TYPE_TOP && bgType != BG_TYPE_MIDDLE && bgType != BG_TYPE_BOTTOM) {
+            throw new RuntimeException("Parameter bgType is illegal!");
+        }
+
+        mBgType = bgType;
+        setBackgroundDrawable(getItemBackground());
+    }
+
+    /**
+     * modelݰ󶨵{@link SettingItemAdapter}ʱʹã
+     * {@link SettingSimpleItem#bindModel(SettingItemModel)}һ£յֺiconҲḲԭݡ
+     * иĶһɣֻһβ֡
+     *
+     * @param model
+     */
+    public void bindModel(SettingItemModel model) {
+        mBoundModel = model;
+        beginUpdate();
+        mItemHeight = model.getCustomHeight() > 0 ? model.getCustomHeight() : mDefaultItemHeight;
+
+        mLeftText = model.getLeftText();
+        mLeftIcon = attachDrawable(mLeftIcon, model.getLeftIconResId() != 0 ? SettingDrawableCache.getDrawable(
+                getContext(), model.getLeftIconResId()) : null);
+        mLeftIconWidth = Math.max(0, model.getLeftIconWidth());
+        mLeftIconHeight = Math.min(mItemHeight, Math.max(0, model.getLeftIconHeight()));
+
+        mRightText = model.getRightText();
+        mRightTextLeftPadding = model.getRightTextLeftPadding();
+        mRightIcon = attachDrawable(mRightIcon, model.getRightIconResId() != 0 ? SettingDrawableCache.getDrawable(
+                getContext(), model.getRightIconResId()) : null);
+        mRightIconWidth = Math.max(0, model.getRightIconWidth());
+        mRightIconHeight = Math.min(mItemHeight, Math.max(0, model.getRightIconHeight()));
+        mShowArrow = model.isShowArrow();
+
+        setRedPointType(model.getRedPointType());
+        updateContentDescription();
+        invalidateLayouts();
+        commitUpdate();
+
+        if (model.getBgType() != BG_TYPE_NONE) {
+            if (model.getBgType() != mBgType) {
+                setBgType(model.getBgType());
+            }
+        } else if (mBgType != BG_TYPE_NONE) {
+            mBgType = BG_TYPE_NONE;
+            setBackgroundDrawable(getItemBackground());
+        }
+    }
+
+    /**
+     * ʼ£{@link SettingSimpleItem#beginUpdate()}÷һ
+     */
+    public void beginUpdate() {
+        mUpdateDepth++;
+    }
+
+    /**
+     * £ڼиĶֻһβ
+     */
+    public void commitUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new RuntimeException("commitUpdate() called without beginUpdate()!");
+        }
+
+        mUpdateDepth--;
+        if (mUpdateDepth == 0 && mLayoutDirty) {
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        // ViewattachʱȷʱжǷǷδµı
+        final boolean skip = SettingOverdraw.canSkipUnpressedBackground(this);
+        final boolean inGroup = getParent() instanceof SettingItemGroup;
+        final boolean changed = inGroup != mInGroup || (skip != mSkipUnpressedBackground && mBgType != BG_TYPE_NONE);
+        mSkipUnpressedBackground = skip;
+        if (changed) {
+            setBackgroundDrawable(getItemBackground());
+        }
+    }
+
+    /**
+     * {@link SettingItemGroup}ʱͷָƣbgTypeʲôֻҪµɫ
+     */
+    private Drawable getItemBackground() {
+        mInGroup = getParent() instanceof SettingItemGroup;
+        if (mInGroup || (mSkipUnpressedBackground && mBgType != BG_TYPE_NONE)) {
+            return SettingOverdraw.getPressedOnlyBackground(this);
+        }
+        return mBgType != BG_TYPE_NONE ? SettingDrawableCache.getDrawable(getContext(), getBackgroundResId(mBgType)) : null;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (mSkipUnpressedBackground && mBgType != BG_TYPE_NONE) {
+            SettingOverdraw.drawDividers(this, canvas, mBgType);
+        }
+
+        final int centerY = mItemHeight / 2;
+
+        if (mLeftIcon != null) {
+            drawIcon(canvas, mLeftIcon, mPadding, centerY);
+        }
+
+        if (mLeftLayout != null) {
+            drawText(canvas, mLeftLayout, mLeftTextX, centerY);
+        }
+
+        if (mRightIcon != null) {
+            drawIcon(canvas, mRightIcon, mRightIconX, centerY);
+        }
+
+        if (mRightLayout != null) {
+            drawText(canvas, mRightLayout, mRightTextX, centerY);
+        }
+
+        if (mShowArrow && mArrow != null) {
+            drawIcon(canvas, mArrow, mArrowX, centerY);
+        }
+
+        if (mRedPointType != RED_POINT_TYPE_NONE) {
+            SettingRedPoint.draw(canvas, getResources(), mRedPointType, mRedPointRight, centerY);
+        }
+    }
+
+    /**
+     * onDrawлƵicon{@link SettingOverdraw}ͳ
+     */
+    void collectDrawables(List<Drawable> out) {
+        if (mLeftIcon != null) {
+            out.add(mLeftIcon);
+        }
+        if (mRightIcon != null) {
+            out.add(mRightIcon);
+        }
+        if (mShowArrow && mArrow != null) {
+            out.add(mArrow);
+        }
+    }
+
+    /**
+     * ԼƵiconûViewҪֶcallback״̬ʱstate-listiconŻ仯
+     *
+     * @return drawable
+     */
+    private Drawable attachDrawable(Drawable old, Drawable drawable) {
+        if (old != null && old != drawable) {
+            old.setCallback(null);
+        }
+        if (drawable != null) {
+            drawable.setCallback(this);
+            if (drawable.isStateful()) {
+                drawable.setState(getDrawableState());
+            }
+        }
+        return drawable;
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+
+        final int[] state = getDrawableState();
+        boolean changed = false;
+        if (mLeftIcon != null && mLeftIcon.isStateful()) {
+            changed |= mLeftIcon.setState(state);
+        }
+        if (mRightIcon != null && mRightIcon.isStateful()) {
+            changed |= mRightIcon.setState(state);
+        }
+        if (mArrow != null && mArrow.isStateful()) {
+            changed |= mArrow.setState(state);
+        }
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        return super.verifyDrawable(who) || who == mLeftIcon || who == mRightIcon || who == mArrow;
+    }
+
+    @Override
+    public void jumpDrawablesToCurrentState() {
+        super.jumpDrawablesToCurrentState();
+        if (mLeftIcon != null) {
+            mLeftIcon.jumpToCurrentState();
+        }
+        if (mRightIcon != null) {
+            mRightIcon.jumpToCurrentState();
+        }
+        if (mArrow != null) {
+            mArrow.jumpToCurrentState();
+        }
+    }
+
+    private void drawIcon(Canvas canvas, Drawable icon, int left, int centerY) {
+        final int width = icon.getBounds().width();
+        final int height = icon.getBounds().height();
+        canvas.save();
+        canvas.translate(left, centerY - height / 2);
+        icon.setBounds(0, 0, width, height);
+        icon.draw(canvas);
+        canvas.restore();
+    }
+
+    private void drawText(Canvas canvas, Layout layout, int left, int centerY) {
+        canvas.save();
+        canvas.translate(left, centerY - layout.getHeight() / 2);
+        layout.draw(canvas);
+        canvas.restore();
+    }
+
+    private void invalidateLayouts() {
+        mLayoutDirty = true;
+        if (mUpdateDepth > 0) {
+            return;
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    private void updateContentDescription() {
+        if (TextUtils.isEmpty(mRightText)) {
+            setContentDescription(mLeftText);
+        } else if (TextUtils.isEmpty(mLeftText)) {
+            setContentDescription(mRightText);
+        } else {
+            setContentDescription(mLeftText + " " + mRightText);
+        }
+    }
+
+    /**
+     * iconʾȲboundsΪ0ʱȡͼƬԭߣ߶Ȳ߶
+     */
+    private int applyIconBounds(Drawable icon, int iconWidth, int iconHeight) {
+        int width = iconWidth;
+        int height = iconHeight;
+        if (width <= 0 || height <= 0) {
+            width = icon.getIntrinsicWidth();
+            height = Math.min(mItemHeight, icon.getIntrinsicHeight());
+        }
+        icon.setBounds(0, 0, width, height);
+        return width;
+    }
+
+    /**
+     * {@link SettingSimpleItem}ĹֵĿȣÿԪصĻλ
+     */
+    private void buildLayouts(int width) {
+        mLayoutDirty = false;
+        mLayoutWidth = width;
+
+        // 1iconֵԭʼ
+        int leftIconWidth = 0;
+        if (mLeftIcon != null) {
+            leftIconWidth = applyIconBounds(mLeftIcon, mLeftIconWidth, mLeftIconHeight) + mPadding;
+        }
+        final TextWidthCache widthCache = TextWidthCache.getInstance();
+        int leftTextWidth = (int) Math.ceil(widthCache.measureText(mLeftText, mLeftPaint));
+
+        // 2ұiconͷֵԭʼ
+        final boolean hasRightText = !TextUtils.isEmpty(mRightText);
+        int rightIconWidth = 0;
+        int arrowWidth = 0;
+        if (mRightIcon != null) {
+            rightIconWidth = applyIconBounds(mRightIcon, mRightIconWidth, mRightIconHeight);
+        }
+        if (mShowArrow && mArrow != null) {
+            arrowWidth = applyIconBounds(mArrow, 0, 0);
+        }
+        int rightTextWidth = (int) Math.ceil(widthCache.measureText(mRightText, mRightPaint));
+
+        // ұ߸Ԫ֮ļ࣬SettingSimpleItemCompoundDrawablePaddingȡֵһ
+        int drawablePadding;
+        if (hasRightText) {
+            drawablePadding = mRightIcon != null ? mRightTextLeftPadding : mPadding;
+        } else {
+            drawablePadding = mRightIcon != null && arrowWidth > 0 ? mPadding / 2 : 0;
+        }
+
+        int rightFixedWidth = rightIconWidth + arrowWidth;
+        if (hasRightText) {
+            if (rightIconWidth > 0) {
+                rightFixedWidth += drawablePadding;
+            }
+            if (arrowWidth > 0) {
+                rightFixedWidth += drawablePadding;
+            }
+        } else if (rightIconWidth > 0 && arrowWidth > 0) {
+            rightFixedWidth += drawablePadding;
+        }
+
+        final int redPointWidth = mRedPointMargin + mRedPointWidth;
+
+        // 3ҵȣSettingSimpleItemһ
+        int flags = 0;
+        if (hasRightText) {
+            flags |= SettingWidthAllocator.FLAG_RIGHT_TEXT;
+        }
+        if (mRightIcon != null) {
+            flags |= SettingWidthAllocator.FLAG_RIGHT_ICON;
+        }
+        if (mShowArrow) {
+            flags |= SettingWidthAllocator.FLAG_ARROW;
+        }
+        mWidthAllocator.allocate(width, leftIconWidth, leftTextWidth, rightFixedWidth, rightTextWidth, redPointWidth,
+                flags);
+        final int leftMaxWidth = mWidthAllocator.getLeftMaxWidth();
+        final int rightMaxWidth = mWidthAllocator.getRightMaxWidth();
+
+        // 4Layoutʡ
+        mLeftLayout = makeLayout(mLeftLayout, mLeftText, mLeftPaint, leftTextWidth, leftMaxWidth - leftIconWidth);
+        mRightLayout = hasRightText ? makeLayout(mRightLayout, mRightText, mRightPaint, rightTextWidth,
+                rightMaxWidth - rightFixedWidth) : null;
+
+        // 5ûλãұߴ
+        mLeftTextX = mPadding + leftIconWidth;
+
+        int x = width - mPadding;
+        if (arrowWidth > 0) {
+            x -= arrowWidth;
+            mArrowX = x;
+            x -= drawablePadding;
+        }
+        if (mRightLayout != null) {
+            x -= mRightLayout.getWidth();
+            mRightTextX = x;
+            if (rightIconWidth > 0) {
+                x -= drawablePadding;
+            }
+        }
+        if (rightIconWidth > 0) {
+            x -= rightIconWidth;
+            mRightIconX = x;
+        }
+        // ұûʱ㿿Ҷ
+        mRedPointRight = x == width - mPadding ? x : x - mRedPointMargin;
+    }
+
+    /**
+     * Layoutʱһε{@link BoringLayout}²ʱٴµLayout
+     *
+     * @param old
+     *            һɵLayoutΪnull
+     */
+    private Layout makeLayout(Layout old, CharSequence text, TextPaint paint, int textWidth, int maxWidth) {
+        if (TextUtils.isEmpty(text) || maxWidth <= 0) {
+            return null;
+        }
+
+        CharSequence display = text;
+        int layoutWidth = textWidth;
+        if (textWidth > maxWidth) {
+            display = TextUtils.ellipsize(text, paint, maxWidth, TextUtils.TruncateAt.END);
+            layoutWidth = maxWidth;
+        }
+
+        BoringLayout.Metrics boring;
+        if (display == text) {
+            // ûʡʱֱûĽǰԤֲUI߳ٲ
+            boring = TextWidthCache.getInstance().getBoringMetrics(text, paint);
+        } else {
+            boring = mBoring = BoringLayout.isBoring(display, paint, mBoring);
+        }
+        if (boring != null) {
+            if (old instanceof BoringLayout) {
+                return ((BoringLayout) old).replaceOrMake(display, paint, layoutWidth, Layout.Alignment.ALIGN_NORMAL,
+                        1.f, 0, boring, false);
+            }
+            return BoringLayout.make(display, paint, layoutWidth, Layout.Alignment.ALIGN_NORMAL, 1.f, 0, boring, false);
+        }
+        return new StaticLayout(display, paint, layoutWidth, Layout.Alignment.ALIGN_NORMAL, 1.f, 0, false);
+    }
+}
@@ -0,0 +1,301 @@
+package com.double0291.settingitem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+
+import android.content.Context;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.View.OnClickListener;
+import android.view.ViewGroup;
+import android.widget.AbsListView;
+import android.widget.BaseAdapter;
+import android.widget.CompoundButton;
+import android.widget.CompoundButton.OnCheckedChangeListener;
+
+/**
+ * ҳʹõadapterֻΪɼд{@link SettingFlatItem}/{@link SettingSwitchItem}ʱò°{@link SettingItemModel}
+ * ͨʹûView{@link SettingFlatItem}ۺ{@link SettingSimpleItem}һ¡
+ * <p>
+ * Լзָ߱ListViewҪȥĬϵdivider
+ * <pre class="prettyprint">
+ * listView.setDivider(null);
+ * listView.setAdapter(new SettingItemAdapter(context, models));
+ * </pre>
+ */
+public class SettingItemAdapter extends BaseAdapter {
+    /**
+     * ÿǰ
+     */
+    private static final int PRE_MEASURE_PAGE_SIZE = 30;
+
+    /**
+     * Ļص
+     */
+    public interface OnItemClickListener {
+        void onItemClick(View view, SettingItemModel model);
+    }
+
+    /**
+     * ״̬仯Ļصص֮ǰmodelе״̬Ѿ
+     */
+    public interface OnItemCheckedChangeListener {
+        void onItemCheckedChanged(SettingSwitchItem view, SettingItemModel model, boolean isChecked);
+    }
+
+    private final Context mContext;
+    private final List<SettingItemModel> mModels = new ArrayList<SettingItemModel>();
+    /**
+     * adapterУֻãListViewпԱա̶ֵBoolean.TRUE
+     * ֱӷRowBinderRowBinderǿViewkeyԶգRowBinderͨViewtagȡ
+     */
+    private final WeakHashMap<View, Boolean> mRows = new WeakHashMap<View, Boolean>();
+
+    private OnItemClickListener mOnItemClickListener;
+    private OnItemCheckedChangeListener mOnItemCheckedChangeListener;
+
+    private SettingTextPreMeasurer mPreMeasurer;
+    private int mPreMeasuredEnd;
+
+    public SettingItemAdapter(Context context) {
+        mContext = context;
+    }
+
+    public SettingItemAdapter(Context context, List<SettingItemModel> models) {
+        mContext = context;
+        if (models != null) {
+            mModels.addAll(models);
+        }
+    }
+
+    /**
+     * 滻ȫ
+     *
+     * @param models
+     */
+    public void setModels(List<SettingItemModel> models) {
+        mModels.clear();
+        if (models != null) {
+            mModels.addAll(models);
+        }
+        mPreMeasuredEnd = 0;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * ĩβ׷ݣʺ{@link SettingScreenParser}½
+     *
+     * @param models
+     */
+    public void addModels(List<SettingItemModel> models) {
+        if (models == null || models.isEmpty()) {
+            return;
+        }
+        mModels.addAll(models);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * º㣬ֻ޸ĺ仯modelˢб
+     * ǰű仯modelֱԭviewϸº㣬в°󶨣Ļmodelֻ޸ݣʱٰ
+     *
+     * @param redPoints
+     *            model id͵ӳ䣬ıֲ
+     * @return 仯ı
+     */
+    public int setRedPoints(SparseIntArray redPoints) {
+        if (redPoints.size() == 0) {
+            return 0;
+        }
+
+        int changed = 0;
+        for (int i = 0, size = mModels.size(); i < size; i++) {
+            SettingItemModel model = mModels.get(i);
+            int type = redPoints.get(model.getId(), -1);
+            if (type != SettingItemConstants.RED_POINT_TYPE_NONE && type != SettingItemConstants.RED_POINT_TYPE_DOT
+                    && type != SettingItemConstants.RED_POINT_TYPE_NEW) {
+                // ӳͷǷ
+                continue;
+            }
+            if (type != model.getRedPointType()) {
+                model.setRedPointType(type);
+                changed++;
+            }
+        }
+
+        if (changed > 0) {
+            for (View row : mRows.keySet()) {
+                ((RowBinder) row.getTag(R.id.setting_item_binder)).updateRedPoint();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * {@link SettingStateFile}бĿغͺ״ָ̬modelʺʱڵһβǰ
+     *
+     * @param states
+     * @return ָ״̬model
+     */
+    public int restoreStates(SettingStateFile states) {
+        final int restored = states.restore(mModels);
+        if (restored > 0) {
+            notifyDataSetChanged();
+        }
+        return restored;
+    }
+
+    /**
+     * modelĿغͺ״̬浽file´ʱ{@link SettingStateFile#open(File)}󴫸{@link #restoreStates}
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void writeStates(File file) throws IOException {
+        SettingStateFile.write(file, mModels);
+    }
+
+    /**
+     * ú󣬹ʱں̨ǰʾе֣ʱUI̲߳
+     *
+     * @param preMeasurer
+     *            nullʾǰ
+     */
+    public void setTextPreMeasurer(SettingTextPreMeasurer preMeasurer) {
+        mPreMeasurer = preMeasurer;
+        mPreMeasuredEnd = 0;
+    }
+
+    public void setOnItemClickListener(OnItemClickListener l) {
+        mOnItemClickListener = l;
+    }
+
+    public void setOnItemCheckedChangeListener(OnItemCheckedChangeListener l) {
+        mOnItemCheckedChangeListener = l;
+    }
+
+    @Override
+    public int getCount() {
+        return mModels.size();
+    }
+
+    @Override
+    public SettingItemModel getItem(int position) {
+        return mModels.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mModels.get(position).getId();
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return 2;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return mModels.get(position).getType();
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        final SettingItemModel model = mModels.get(position);
+        preMeasureAhead(position);
+
+        View view = convertView;
+        RowBinder binder;
+        if (view == null) {
+            if (model.getType() == SettingItemModel.TYPE_SWITCH) {
+                view = new SettingSwitchItem(mContext);
+            } else {
+                view = new SettingFlatItem(mContext);
+            }
+            view.setLayoutParams(new AbsListView.LayoutParams(AbsListView.LayoutParams.MATCH_PARENT,
+                    AbsListView.LayoutParams.WRAP_CONTENT));
+
+            binder = new RowBinder(view);
+            mRows.put(view, Boolean.TRUE);
+            view.setTag(R.id.setting_item_binder, binder);
+            view.setOnClickListener(binder);
+        } else {
+            binder = (RowBinder) view.getTag(R.id.setting_item_binder);
+        }
+
+        binder.mModel = model;
+        if (model.getType() == SettingItemModel.TYPE_SWITCH) {
+            SettingSwitchItem item = (SettingSwitchItem) view;
+            // ڼȥsetCheckedصҵ
+            item.setOnCheckedChangeListener(null);
+            item.bindModel(model);
+            item.setOnCheckedChangeListener(binder);
+        } else {
+            ((SettingFlatItem) view).bindModel(model);
+        }
+        return view;
+    }
+
+    /**
+     * ֤position֮һҳѾύ̨
+     */
+    private void preMeasureAhead(int position) {
+        if (mPreMeasurer == null || mPreMeasuredEnd >= position + PRE_MEASURE_PAGE_SIZE
+                || mPreMeasuredEnd >= mModels.size()) {
+            return;
+        }
+
+        final int start = Math.max(mPreMeasuredEnd, position);
+        final int end = Math.min(mModels.size(), position + PRE_MEASURE_PAGE_SIZE * 2);
+        mPreMeasurer.preMeasure(mModels, start, end - start);
+        mPreMeasuredEnd = end;
+    }
+
+    /**
+     * ÿһиõļÿΰ󶨶µĶ
+     */
+    private class RowBinder implements OnClickListener, OnCheckedChangeListener {
+        final View mView;
+        SettingItemModel mModel;
+
+        RowBinder(View view) {
+            mView = view;
+        }
+
+        /**
+         * modelеĺ͸µһУûʱsetRedPointTypeֱӷ
+         */
+        void updateRedPoint() {
+            if (mModel != null && mView instanceof SettingFlatItem) {
+                ((SettingFlatItem) mView).setRedPointType(mModel.getRedPointType());
+            }
+        }
+
+        @Override
+        public void onClick(View v) {
+            if (mOnItemClickListener != null && mModel != null) {
+                mOnItemClickListener.onItemClick(v, mModel);
+            }
+        }
+
+        @Override
+        public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+            if (mModel == null) {
+                return;
+            }
+            mModel.setSwitchChecked(isChecked);
+            if (mOnItemCheckedChangeListener != null) {
+                mOnItemCheckedChangeListener.onItemCheckedChanged((SettingSwitchItem) buttonView.getParent(), mModel,
+                        isChecked);
+            }
+        }
+    }
+}
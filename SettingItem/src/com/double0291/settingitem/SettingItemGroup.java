@@ -0,0 +1,136 @@
+package com.double0291.settingitem;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+import android.widget.LinearLayout;
+
+/**
+ * һԶݿɼViewÿһλãsingle/top/middle/bottomҪٸÿһֶbgType
+ * <p>
+ * İɫֻһΣ߿ͷָView֮ͳһƣ{@link SettingSimpleItem}
+ * {@link SettingSwitchItem}{@link SettingFlatItem}attachʱָView飬ԼֻµɫٸԻskin_setting_strip_*
+ * ػʾĳһʱı߿һλʱԶ
+ * </p>
+ * ÷
+ * <pre class="prettyprint">
+ * &lt;com.double0291.settingitem.SettingItemGroup
+ *           android:layout_width="match_parent"
+ *           android:layout_height="wrap_content"&gt;
+ *     &lt;com.double0291.settingitem.SettingSimpleItem ... /&gt;
+ *     &lt;com.double0291.settingitem.SettingSwitchItem ... /&gt;
+ * &lt;/com.double0291.settingitem.SettingItemGroup&gt;
+ * </pre>
+ * ısetBgTypebindModelʱֻͬðµɫƳָbgTypeӦı
+ */
+public class SettingItemGroup extends LinearLayout implements SettingItemConstants {
+    private final Paint mBackgroundPaint = new Paint();
+    private final Paint mDividerPaint = new Paint();
+    private final int mDividerHeight;
+
+    public SettingItemGroup(Context context) {
+        this(context, null);
+    }
+
+    public SettingItemGroup(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        setOrientation(VERTICAL);
+
+        final SettingItemStyle style = SettingItemStyle.get(context);
+        mBackgroundPaint.setColor(style.getBodyColor());
+        mDividerPaint.setColor(style.getDividerColor());
+        mDividerHeight = style.getDividerHeight();
+
+        // ҪonDrawлı
+        setWillNotDraw(false);
+    }
+
+    @Override
+    public void setOrientation(int orientation) {
+        if (orientation != VERTICAL) {
+            throw new RuntimeException("SettingItemGroup only supports VERTICAL orientation!");
+        }
+        super.setOrientation(orientation);
+    }
+
+    /**
+     * ViewλɿɼֵView
+     *
+     * @param child
+     * @return {@link #BG_TYPE_SINGLE}, {@link #BG_TYPE_TOP}, {@link #BG_TYPE_MIDDLE}, {@link #BG_TYPE_BOTTOM}
+     *         childGONEʱ{@link #BG_TYPE_NONE}
+     */
+    public int getItemPosition(View child) {
+        final int index = indexOfChild(child);
+        if (index < 0 || child.getVisibility() == GONE) {
+            return BG_TYPE_NONE;
+        }
+
+        final boolean first = index == findFirstVisibleChild();
+        final boolean last = index == findLastVisibleChild();
+        if (first && last) {
+            return BG_TYPE_SINGLE;
+        } else if (first) {
+            return BG_TYPE_TOP;
+        } else if (last) {
+            return BG_TYPE_BOTTOM;
+        }
+        return BG_TYPE_MIDDLE;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        // ֻһΰɫ
+        final int first = findFirstVisibleChild();
+        if (first < 0) {
+            return;
+        }
+        final View firstChild = getChildAt(first);
+        final View lastChild = getChildAt(findLastVisibleChild());
+        canvas.drawRect(firstChild.getLeft(), firstChild.getTop(), lastChild.getRight(), lastChild.getBottom(),
+                mBackgroundPaint);
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+
+        // ָ߻View棬µɫסÿһĶһһĵײټһ
+        View lastChild = null;
+        for (int i = 0, count = getChildCount(); i < count; i++) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
+            }
+            canvas.drawRect(child.getLeft(), child.getTop(), child.getRight(), child.getTop() + mDividerHeight,
+                    mDividerPaint);
+            lastChild = child;
+        }
+        if (lastChild != null) {
+            canvas.drawRect(lastChild.getLeft(), lastChild.getBottom() - mDividerHeight, lastChild.getRight(),
+                    lastChild.getBottom(), mDividerPaint);
+        }
+    }
+
+    private int findFirstVisibleChild() {
+        for (int i = 0, count = getChildCount(); i < count; i++) {
+            if (getChildAt(i).getVisibility() != GONE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int findLastVisibleChild() {
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            if (getChildAt(i).getVisibility() != GONE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,222 @@
+package com.double0291.settingitem;
+
+/**
+ * ģֶͣ{@link SettingSimpleItem}{@link SettingSwitchItem}R.styleable.SettingItemȡһһӦ
+ * <p>
+ * {@link SettingItemAdapter}ʹʱֻҪΪÿһдһmodelViewֻΪĻϿɼдʱá
+ * </p>
+ * iconʹԴidDrawable棬ⳤбÿһжһͼƬ
+ */
+public class SettingItemModel implements SettingItemConstants {
+    /**
+     * ͨӦ{@link SettingSimpleItem}{@link SettingItemAdapter}{@link SettingFlatItem}ʾ
+     */
+    public static final int TYPE_SIMPLE = 0;
+
+    /**
+     * صıӦ{@link SettingSwitchItem}
+     */
+    public static final int TYPE_SWITCH = 1;
+
+    private final int mType;
+    private final int mId;
+
+    private int mCustomHeight;
+    private int mBgType = BG_TYPE_NONE;
+
+    private CharSequence mLeftText;
+    private int mLeftIconResId;
+    private int mLeftIconWidth;
+    private int mLeftIconHeight;
+
+    private CharSequence mRightText;
+    private int mRightIconResId;
+    private int mRightIconWidth;
+    private int mRightIconHeight;
+    private int mRightTextLeftPadding;
+
+    private boolean mShowArrow = true;
+    private int mRedPointType = RED_POINT_TYPE_NONE;
+
+    /**
+     * ڵֱ仯ʱ֪ͨ
+     */
+    private SettingSearchIndex mSearchIndex;
+
+    private CharSequence mSwitchText;
+    private boolean mSwitchChecked;
+
+    /**
+     * @param type
+     *            ȡֵΪ {@link #TYPE_SIMPLE}, {@link #TYPE_SWITCH}
+     * @param id
+     *            ΨһʶͬʱΪadapterstable id
+     */
+    public SettingItemModel(int type, int id) {
+        if (type != TYPE_SIMPLE && type != TYPE_SWITCH) {
+            throw new RuntimeException("Parameter type is illegal!");
+        }
+        mType = type;
+        mId = id;
+    }
+
+    public int getType() {
+        return mType;
+    }
+
+    public int getId() {
+        return mId;
+    }
+
+    /**
+     * @return Զ߶ȣ0ʾʹĬϸ߶
+     */
+    public int getCustomHeight() {
+        return mCustomHeight;
+    }
+
+    public void setCustomHeight(int customHeight) {
+        mCustomHeight = customHeight;
+    }
+
+    public int getBgType() {
+        return mBgType;
+    }
+
+    /**
+     * @param bgType
+     *            ȡֵΪ {@link #BG_TYPE_NONE}, {@link #BG_TYPE_SINGLE}, {@link #BG_TYPE_TOP}, {@link #BG_TYPE_MIDDLE}, or
+     *            {@link #BG_TYPE_BOTTOM}
+     */
+    public void setBgType(int bgType) {
+        mBgType = bgType;
+    }
+
+    public CharSequence getLeftText() {
+        return mLeftText;
+    }
+
+    public void setLeftText(CharSequence leftText) {
+        mLeftText = leftText;
+        notifyLabelChanged();
+    }
+
+    public int getLeftIconResId() {
+        return mLeftIconResId;
+    }
+
+    public int getLeftIconWidth() {
+        return mLeftIconWidth;
+    }
+
+    public int getLeftIconHeight() {
+        return mLeftIconHeight;
+    }
+
+    /**
+     * iconiconWidthiconHeightΪ0ʱʾͼƬԭ
+     *
+     * @param resId
+     *            0ʾʾicon
+     * @param iconWidth
+     * @param iconHeight
+     */
+    public void setLeftIcon(int resId, int iconWidth, int iconHeight) {
+        mLeftIconResId = resId;
+        mLeftIconWidth = iconWidth;
+        mLeftIconHeight = iconHeight;
+    }
+
+    public CharSequence getRightText() {
+        return mRightText;
+    }
+
+    public void setRightText(CharSequence rightText) {
+        mRightText = rightText;
+        notifyLabelChanged();
+    }
+
+    public int getRightIconResId() {
+        return mRightIconResId;
+    }
+
+    public int getRightIconWidth() {
+        return mRightIconWidth;
+    }
+
+    public int getRightIconHeight() {
+        return mRightIconHeight;
+    }
+
+    /**
+     * ҲiconiconWidthiconHeightΪ0ʱʾͼƬԭ
+     *
+     * @param resId
+     *            0ʾʾicon
+     * @param iconWidth
+     * @param iconHeight
+     */
+    public void setRightIcon(int resId, int iconWidth, int iconHeight) {
+        mRightIconResId = resId;
+        mRightIconWidth = iconWidth;
+        mRightIconHeight = iconHeight;
+    }
+
+    public int getRightTextLeftPadding() {
+        return mRightTextLeftPadding;
+    }
+
+    public void setRightTextLeftPadding(int rightTextLeftPadding) {
+        mRightTextLeftPadding = rightTextLeftPadding;
+    }
+
+    public boolean isShowArrow() {
+        return mShowArrow;
+    }
+
+    public void setShowArrow(boolean showArrow) {
+        mShowArrow = showArrow;
+    }
+
+    public int getRedPointType() {
+        return mRedPointType;
+    }
+
+    /**
+     * @param redPointType
+     *            ȡֵΪ {@link #RED_POINT_TYPE_NONE}, {@link #RED_POINT_TYPE_DOT}, {@link #RED_POINT_TYPE_NEW}
+     */
+    public void setRedPointType(int redPointType) {
+        mRedPointType = redPointType;
+    }
+
+    public CharSequence getSwitchText() {
+        return mSwitchText;
+    }
+
+    public void setSwitchText(CharSequence switchText) {
+        mSwitchText = switchText;
+        notifyLabelChanged();
+    }
+
+    public boolean isSwitchChecked() {
+        return mSwitchChecked;
+    }
+
+    public void setSwitchChecked(boolean switchChecked) {
+        mSwitchChecked = switchChecked;
+    }
+
+    /**
+     * {@link SettingSearchIndex}ڼ롢ɾʱ
+     */
+    void setSearchIndex(SettingSearchIndex searchIndex) {
+        mSearchIndex = searchIndex;
+    }
+
+    private void notifyLabelChanged() {
+        if (mSearchIndex != null) {
+            mSearchIndex.update(this);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.double0291.settingitem;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+
+/**
+ * õĳߴ硢ɫͼͷԴ
+ * <p>
+ * ÿʱҪȡࡢĬϸ߶ȡұiconͼͷԤĿȡͷͼƬԼɫЩֵֻ⡢йأ
+ * ﰴֻһΣ֮ıֱӶȡãĻܶȣ仯ʱֻ½ֵ{@link SettingThemeCache}
+ * </p>
+ * ֻUI߳ʹá
+ */
+final class SettingItemStyle {
+    private static final SettingThemeCache<SettingItemStyle> sCache = new SettingThemeCache<SettingItemStyle>(
+            new SettingThemeCache.Factory<SettingItemStyle>() {
+
+                @Override
+                public SettingItemStyle create(Context context) {
+                    return new SettingItemStyle(context.getResources());
+                }
+            });
+
+    private final int mPadding;
+    private final int mDefaultHeight;
+    private final int mRightIconMaxWidth;
+    private final int mArrowMaxWidth;
+    /**
+     * ֻṩConstantStateøκView
+     */
+    private final Drawable mArrow;
+    private final int mBlackColor;
+    private final int mGrayColor;
+    private final int mBodyColor;
+    private final int mDividerColor;
+    private final int mDividerHeight;
+
+    private SettingItemStyle(Resources res) {
+        mPadding = res.getDimensionPixelSize(R.dimen.setting_item_horizontal_padding);
+        mDefaultHeight = res.getDimensionPixelSize(R.dimen.setting_item_default_height);
+
+        final float density = res.getDisplayMetrics().density;
+        mRightIconMaxWidth = (int) (density * 35 + 0.5);
+        mArrowMaxWidth = (int) (density * 15 + 0.5);
+
+        mArrow = res.getDrawable(R.drawable.arrow_right_normal);
+        mBlackColor = res.getColor(R.color.black);
+        mGrayColor = res.getColor(R.color.setting_gray_color);
+        mBodyColor = res.getColor(R.color.white);
+        mDividerColor = res.getColor(R.color.setting_item_divider_color);
+        // skin_setting_strip_*еһxhdpi1
+        mDividerHeight = Math.max(1, (int) (density * 0.5f));
+    }
+
+    /**
+     * ȡcontextӦʽ
+     *
+     * @param context
+     * @return
+     */
+    static SettingItemStyle get(Context context) {
+        return sCache.get(context);
+    }
+
+    /**
+     * ջ
+     */
+    static void clear() {
+        sCache.clear();
+    }
+
+    /**
+     * @return Լ֮ļ
+     */
+    int getPadding() {
+        return mPadding;
+    }
+
+    /**
+     * @return ûָcustomHeightʱĸ߶
+     */
+    int getDefaultHeight() {
+        return mDefaultHeight;
+    }
+
+    /**
+     * @return ұûʱΪұiconԤĿ
+     */
+    int getRightIconMaxWidth() {
+        return mRightIconMaxWidth;
+    }
+
+    /**
+     * @return ұûʱΪͷԤĿ
+     */
+    int getArrowMaxWidth() {
+        return mArrowMaxWidth;
+    }
+
+    /**
+     * ÿηµļͷʵͬһConstantState
+     *
+     * @param res
+     * @return
+     */
+    Drawable newArrowDrawable(Resources res) {
+        Drawable.ConstantState state = mArrow.getConstantState();
+        return state != null ? state.newDrawable(res) : res.getDrawable(R.drawable.arrow_right_normal);
+    }
+
+    /**
+     * @return ֵɫ
+     */
+    int getBlackColor() {
+        return mBlackColor;
+    }
+
+    /**
+     * @return ұֵɫ
+     */
+    int getGrayColor() {
+        return mGrayColor;
+    }
+
+    /**
+     * @return skin_setting_strip_*δʱĵɫ
+     */
+    int getBodyColor() {
+        return mBodyColor;
+    }
+
+    /**
+     * @return skin_setting_strip_*зָߵɫ
+     */
+    int getDividerColor() {
+        return mDividerColor;
+    }
+
+    /**
+     * @return skin_setting_strip_*зָߵĸ߶
+     */
+    int getDividerHeight() {
+        return mDividerHeight;
+    }
+}
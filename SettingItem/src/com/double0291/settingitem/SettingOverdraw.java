@@ -0,0 +1,234 @@
+package com.double0291.settingitem;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+/**
+ * ĹȻͳƣԼٹȻƵģʽ
+ * <p>
+ * {@link #computeOverdraw(View)}ݱ丸ViewʵõDrawableÿƽ˼㣺
+ * Viewڱı{@link SettingItemGroup}鱳Viewıicon
+ * {@link Switch}trackthumbڣֺͺֻռС㡣ǸDrawableģֻڵԡ
+ * </p>
+ * <p>
+ * {@link #setReduceEnabled(boolean)}򿪼ٹȻƵģʽϲһбĸViewѾ
+ * skin_setting_strip_*δʱĵɫͲٻδµıֻµɫָɱԼ
+ * Ƿڱattachʱжϣ֮Viewıٱ仯ҪbgType{@link SettingItemGroup}ı鸺ƣģʽӰ졣
+ * </p>
+ * ÷
+ * <pre class="prettyprint">
+ * SettingOverdraw.setReduceEnabled(true);
+ * ...
+ * Log.d(TAG, SettingOverdraw.dump(container));
+ * </pre>
+ * ֻUI߳ʹá
+ */
+public final class SettingOverdraw implements SettingItemConstants {
+    private static boolean sReduceEnabled;
+
+    private static final Paint sDividerPaint = new Paint();
+    private static final Rect sTmpRect = new Rect();
+
+    private SettingOverdraw() {
+    }
+
+    /**
+     * 򿪻߹رռٹȻƵģʽֻӰ֮attachڵıĬϹر
+     *
+     * @param enabled
+     */
+    public static void setReduceEnabled(boolean enabled) {
+        sReduceEnabled = enabled;
+    }
+
+    public static boolean isReduceEnabled() {
+        return sReduceEnabled;
+    }
+
+    /**
+     * ÿƽƵĲ
+     *
+     * @param item
+     * @return ûлκʱΪ0ûвʱҲ0
+     */
+    public static float computeOverdraw(View item) {
+        final long itemArea = (long) item.getWidth() * item.getHeight();
+        if (itemArea == 0) {
+            return 0;
+        }
+
+        long paintedArea = 0;
+
+        // ViewıֻҪھ͸
+        ViewParent parent = item.getParent();
+        while (parent instanceof View) {
+            View view = (View) parent;
+            if (isPainted(view.getBackground())) {
+                paintedArea += itemArea;
+            }
+            parent = view.getParent();
+        }
+        if (item.getParent() instanceof SettingItemGroup && item.getVisibility() != View.GONE) {
+            // onDrawƵ鱳
+            paintedArea += itemArea;
+        }
+
+        paintedArea += computePaintedArea(item);
+        return (float) paintedArea / itemArea;
+    }
+
+    /**
+     * ͳcontainerбĹȻƣÿһ
+     *
+     * @param container
+     * @return "SettingSimpleItem id=0x7f050001 overdraw=2.00"
+     */
+    public static String dump(ViewGroup container) {
+        StringBuilder sb = new StringBuilder();
+        dumpChildren(container, sb);
+        return sb.toString();
+    }
+
+    private static void dumpChildren(ViewGroup parent, StringBuilder sb) {
+        for (int i = 0, count = parent.getChildCount(); i < count; i++) {
+            final View child = parent.getChildAt(i);
+            if (child instanceof SettingSimpleItem || child instanceof SettingSwitchItem
+                    || child instanceof SettingFlatItem) {
+                sb.append(child.getClass().getSimpleName()).append(" id=0x").append(Integer.toHexString(child.getId()))
+                        .append(" overdraw=").append(String.format(Locale.US, "%.2f", computeOverdraw(child))).append('\n');
+            } else if (child instanceof ViewGroup) {
+                dumpChildren((ViewGroup) child, sb);
+            }
+        }
+    }
+
+    /**
+     * viewɼViewDrawable֮
+     */
+    private static long computePaintedArea(View view) {
+        if (view.getVisibility() != View.VISIBLE) {
+            return 0;
+        }
+
+        long area = 0;
+        if (isPainted(view.getBackground())) {
+            area += (long) view.getWidth() * view.getHeight();
+        }
+
+        if (view instanceof Switch) {
+            Switch s = (Switch) view;
+            area += getPaintedArea(s.getTrackDrawable());
+            area += getPaintedArea(s.getThumbDrawable());
+        } else if (view instanceof ImageView) {
+            area += getPaintedArea(((ImageView) view).getDrawable());
+        } else if (view instanceof TextView) {
+            for (Drawable d : ((TextView) view).getCompoundDrawables()) {
+                area += getPaintedArea(d);
+            }
+        } else if (view instanceof SettingFlatItem) {
+            ArrayList<Drawable> drawables = new ArrayList<Drawable>(3);
+            ((SettingFlatItem) view).collectDrawables(drawables);
+            for (int i = 0, size = drawables.size(); i < size; i++) {
+                area += getPaintedArea(drawables.get(i));
+            }
+        }
+
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0, count = group.getChildCount(); i < count; i++) {
+                area += computePaintedArea(group.getChildAt(i));
+            }
+        }
+        return area;
+    }
+
+    private static long getPaintedArea(Drawable d) {
+        if (!isPainted(d)) {
+            return 0;
+        }
+        final Rect bounds = d.getBounds();
+        return (long) bounds.width() * bounds.height();
+    }
+
+    /**
+     * ɼselectorǰ״̬ûжӦDrawableȫ͸ɫκ
+     */
+    private static boolean isPainted(Drawable d) {
+        if (d == null || !d.isVisible()) {
+            return false;
+        }
+        final Drawable current = d.getCurrent();
+        if (current == null) {
+            return false;
+        }
+        if (current instanceof ColorDrawable) {
+            return (((ColorDrawable) current).getColor() >>> 24) != 0;
+        }
+        return true;
+    }
+
+    /**
+     * ǷδµıģʽѴ򿪣ϲһбĸViewƵǱĵɫ
+     *
+     * @param item
+     * @return
+     */
+    static boolean canSkipUnpressedBackground(View item) {
+        if (!sReduceEnabled || item.getParent() instanceof SettingItemGroup) {
+            return false;
+        }
+
+        final int bodyColor = SettingItemStyle.get(item.getContext()).getBodyColor();
+        ViewParent parent = item.getParent();
+        while (parent instanceof View) {
+            Drawable background = ((View) parent).getBackground();
+            if (background != null) {
+                Drawable current = background.getCurrent();
+                return current instanceof ColorDrawable && ((ColorDrawable) current).getColor() == bodyColor;
+            }
+            parent = parent.getParent();
+        }
+        return false;
+    }
+
+    /**
+     * δµıʱʹõıֻаµɫ
+     *
+     * @param item
+     * @return
+     */
+    static Drawable getPressedOnlyBackground(View item) {
+        return SettingDrawableCache.getDrawable(item.getContext(), R.drawable.setting_item_group_row_selector);
+    }
+
+    /**
+     * skin_setting_strip_*еķָߣÿһֶжߣbottomsingleеײ
+     *
+     * @param item
+     * @param canvas
+     * @param bgType
+     */
+    static void drawDividers(View item, Canvas canvas, int bgType) {
+        final SettingItemStyle style = SettingItemStyle.get(item.getContext());
+        final int height = style.getDividerHeight();
+        sDividerPaint.setColor(style.getDividerColor());
+
+        sTmpRect.set(0, 0, item.getWidth(), height);
+        canvas.drawRect(sTmpRect, sDividerPaint);
+        if (bgType == BG_TYPE_BOTTOM || bgType == BG_TYPE_SINGLE) {
+            sTmpRect.set(0, item.getHeight() - height, item.getWidth(), item.getHeight());
+            canvas.drawRect(sTmpRect, sDividerPaint);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.double0291.settingitem;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+
+/**
+ * newͼĹԴ
+ * <p>
+ * ͼƬֻһΣбͬһDrawableڸԵdrawboundsֱӻƣ
+ * лʱҪViewҲҪaddView/removeView
+ * </p>
+ * ֻUI߳ʹá
+ */
+final class SettingRedPoint implements SettingItemConstants {
+    private static float sDensity;
+
+    private static Drawable sDotDrawable;
+    private static int sDotMargin;
+    private static int sDotWidth;
+
+    private static Drawable sNewDrawable;
+    private static int sNewMargin;
+    private static int sNewWidth;
+
+    private SettingRedPoint() {
+    }
+
+    /**
+     * Ļܶȱ仯ʱ¼Դ
+     */
+    private static void ensureLoaded(Resources res) {
+        final float density = res.getDisplayMetrics().density;
+        if (sDotDrawable != null && sDensity == density) {
+            return;
+        }
+
+        sDensity = density;
+        sDotDrawable = res.getDrawable(R.drawable.tips_dot);
+        sDotMargin = res.getDimensionPixelSize(R.dimen.setting_item_red_point_dot_margin);
+        sDotWidth = res.getDimensionPixelSize(R.dimen.setting_item_red_point_dot_width);
+
+        sNewDrawable = res.getDrawable(R.drawable.tips_new);
+        sNewMargin = res.getDimensionPixelSize(R.dimen.setting_item_red_point_new_margin);
+        sNewWidth = res.getDimensionPixelSize(R.dimen.setting_item_red_point_new_width);
+    }
+
+    /**
+     * @return Ҳ֮ļ࣬{@link #RED_POINT_TYPE_NONE}0
+     */
+    static int getMargin(Resources res, int type) {
+        ensureLoaded(res);
+        switch (type) {
+        case RED_POINT_TYPE_DOT:
+            return sDotMargin;
+        case RED_POINT_TYPE_NEW:
+            return sNewMargin;
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * @return ֿʱռõĿȣ{@link #RED_POINT_TYPE_NONE}0
+     */
+    static int getWidth(Resources res, int type) {
+        ensureLoaded(res);
+        switch (type) {
+        case RED_POINT_TYPE_DOT:
+            return sDotWidth;
+        case RED_POINT_TYPE_NEW:
+            return sNewWidth;
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * rightΪұ߽硢centerYΪֱĻƺ
+     *
+     * @param canvas
+     * @param res
+     * @param type
+     *            ȡֵΪ {@link #RED_POINT_TYPE_DOT}, {@link #RED_POINT_TYPE_NEW}ֵ
+     * @param right
+     * @param centerY
+     */
+    static void draw(Canvas canvas, Resources res, int type, int right, int centerY) {
+        ensureLoaded(res);
+
+        final Drawable drawable;
+        switch (type) {
+        case RED_POINT_TYPE_DOT:
+            drawable = sDotDrawable;
+            break;
+        case RED_POINT_TYPE_NEW:
+            drawable = sNewDrawable;
+            break;
+        default:
+            return;
+        }
+
+        final int width = drawable.getIntrinsicWidth();
+        final int height = drawable.getIntrinsicHeight();
+        final int top = centerY - height / 2;
+        drawable.setBounds(right - width, top, right, top + height);
+        drawable.draw(canvas);
+    }
+}
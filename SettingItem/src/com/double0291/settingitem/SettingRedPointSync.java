@@ -0,0 +1,72 @@
+package com.double0291.settingitem;
+
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * ͬ㣬ѷ·һݺһӦõҳϡ
+ * <p>
+ * ֻк仯ıŻᱻ޸ģûıˢ£޸Ķͬһεɣ
+ * ҳֻһ֡һβ֡ʹ{@link SettingItemAdapter}б{@link SettingItemAdapter#setRedPoints(SparseIntArray)}
+ * </p>
+ * ÷
+ * <pre class="prettyprint">
+ * SparseIntArray redPoints = new SparseIntArray();
+ * redPoints.put(R.id.item1, SettingItemConstants.RED_POINT_TYPE_DOT);
+ * redPoints.put(R.id.item2, SettingItemConstants.RED_POINT_TYPE_NONE);
+ * SettingRedPointSync.apply(container, redPoints);
+ * </pre>
+ * ֻUI߳ʹá
+ */
+public final class SettingRedPointSync implements SettingItemConstants {
+    private SettingRedPointSync() {
+    }
+
+    /**
+     * redPointsӦõcontainerе{@link SettingSimpleItem}{@link SettingFlatItem}
+     *
+     * @param container
+     * @param redPoints
+     *            view id͵ӳ䣬ıֲ
+     * @return 仯ı
+     */
+    public static int apply(ViewGroup container, SparseIntArray redPoints) {
+        if (redPoints.size() == 0) {
+            return 0;
+        }
+        return applyToChildren(container, redPoints);
+    }
+
+    private static int applyToChildren(ViewGroup parent, SparseIntArray redPoints) {
+        int changed = 0;
+        for (int i = 0, count = parent.getChildCount(); i < count; i++) {
+            final View child = parent.getChildAt(i);
+            if (child instanceof SettingSimpleItem) {
+                SettingSimpleItem item = (SettingSimpleItem) child;
+                int type = redPoints.get(item.getId(), -1);
+                if (type != -1 && type != item.getRedPointType()) {
+                    // ǷͻᱻsetRedPointType
+                    item.setRedPointType(type);
+                    if (item.getRedPointType() == type) {
+                        changed++;
+                    }
+                }
+            } else if (child instanceof SettingFlatItem) {
+                SettingFlatItem item = (SettingFlatItem) child;
+                int type = redPoints.get(item.getId(), -1);
+                if (type != -1 && type != item.getRedPointType()) {
+                    // ǷͻᱻsetRedPointType
+                    item.setRedPointType(type);
+                    if (item.getRedPointType() == type) {
+                        changed++;
+                    }
+                }
+            } else if (child instanceof ViewGroup) {
+                // ڲǶױֻҪͨ
+                changed += applyToChildren((ViewGroup) child, redPoints);
+            }
+        }
+        return changed;
+    }
+}
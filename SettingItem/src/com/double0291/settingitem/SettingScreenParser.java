@@ -0,0 +1,406 @@
+package com.double0291.settingitem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+/**
+ * JSONļʽҳ{@link SettingItemModel}
+ * <p>
+ * ں̨߳̽УÿһͻصһUỊ߳һֻһҵݣʾʣµٰϴķ½׷ӡ
+ * {@link SettingItemAdapter}ʹʱֻйĻϵвŻViewǧҳҲ
+ * </p>
+ * ļʽֶȡֵattrs.xml#SettingItemһ£ߴĵλdpֿ"@string/xxx"ԴiconʹdrawableԴ
+ * <pre class="prettyprint">
+ * {
+ *   "items": [
+ *     {"id": 1, "type": "simple", "bgType": "top", "leftText": "", "leftIcon": "test",
+ *      "leftIconWidth": 40, "leftIconHeight": 40, "rightText": "@string/cache_size", "showArrow": true, "redPoint": "dot"},
+ *     {"id": 2, "type": "switch", "bgType": "bottom", "switchText": "ҹģʽ", "switchChecked": false}
+ *   ]
+ * }
+ * </pre>
+ * ÷
+ * <pre class="prettyprint">
+ * final SettingItemAdapter adapter = new SettingItemAdapter(context);
+ * listView.setAdapter(adapter);
+ * new SettingScreenParser(context).parse(context.getAssets().open("settings.json"), new SettingScreenParser.Callback() {
+ *     public void onItemsParsed(List&lt;SettingItemModel&gt; models) {
+ *         adapter.addModels(models);
+ *     }
+ *     ...
+ * });
+ * </pre>
+ * 캯{@link #parse}ҪUI̵߳ãлصUIִ߳Уͬһparserͬһʱֻһļ
+ */
+public class SettingScreenParser implements SettingItemConstants {
+    /**
+     * һĴСԼһı
+     */
+    private static final int FIRST_GROUP_SIZE = 20;
+
+    /**
+     * ֮ÿĴС
+     */
+    private static final int GROUP_SIZE = 100;
+
+    private static final String STRING_REF_PREFIX = "@string/";
+
+    /**
+     * ĻصUIִ߳
+     */
+    public interface Callback {
+        /**
+         * һļе˳ص
+         */
+        void onItemsParsed(List<SettingItemModel> models);
+
+        /**
+         * ȫ
+         */
+        void onParseFinished();
+
+        /**
+         * ʧܣ֮ǰѾصıȻЧ
+         */
+        void onParseFailed(Exception e);
+    }
+
+    private final Resources mResources;
+    private final String mPackageName;
+    private final float mDensity;
+    private final Executor mExecutor;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * ԴԴidĻ棬ͬһiconļгֶʱֻһ
+     */
+    private final HashMap<String, Integer> mDrawableIds = new HashMap<String, Integer>();
+
+    /**
+     * ǰĽֻUI̷߳ʡÿνԼȡǣȡ߿ʼµĽӰı
+     */
+    private ParseTask mCurrentTask;
+
+    /**
+     * ʹ{@link AsyncTask#THREAD_POOL_EXECUTOR}
+     *
+     * @param context
+     */
+    public SettingScreenParser(Context context) {
+        this(context, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param context
+     * @param executor
+     *            ִн̳߳
+     */
+    public SettingScreenParser(Context context, Executor executor) {
+        mResources = context.getResources();
+        mPackageName = context.getPackageName();
+        mDensity = mResources.getDisplayMetrics().density;
+        mExecutor = executor;
+    }
+
+    /**
+     * ں̨߳̽inʧܺرinڽеһνᱻȡĻص
+     *
+     * @param in
+     * @param callback
+     */
+    public void parse(InputStream in, Callback callback) {
+        cancel();
+        mCurrentTask = new ParseTask(in, callback);
+        mExecutor.execute(mCurrentTask);
+    }
+
+    /**
+     * ֹͣǰĽ֮󲻻κλص
+     */
+    public void cancel() {
+        if (mCurrentTask != null) {
+            mCurrentTask.canceled = true;
+            mCurrentTask = null;
+        }
+    }
+
+    /**
+     * һν̨̺߳ͻصֻԼȡ
+     */
+    private final class ParseTask implements Runnable {
+        final InputStream in;
+        final Callback callback;
+        volatile boolean canceled;
+
+        ParseTask(InputStream in, Callback callback) {
+            this.in = in;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            JsonReader reader = null;
+            try {
+                reader = new JsonReader(new InputStreamReader(in, "UTF-8"));
+                readScreen(reader, this);
+                post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        callback.onParseFinished();
+                    }
+                });
+            } catch (final Exception e) {
+                post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        callback.onParseFailed(e);
+                    }
+                });
+            } finally {
+                try {
+                    if (reader != null) {
+                        reader.close();
+                    } else {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+
+        /**
+         * ص֮ǰټһΣcancel()֮ѾpostȥĻصҲִ
+         */
+        void post(final Runnable r) {
+            if (canceled) {
+                return;
+            }
+            mHandler.post(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (!canceled) {
+                        r.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private void readScreen(JsonReader reader, ParseTask task) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext() && !task.canceled) {
+            if ("items".equals(reader.nextName())) {
+                readItems(reader, task);
+            } else {
+                reader.skipValue();
+            }
+        }
+    }
+
+    private void readItems(JsonReader reader, ParseTask task) throws IOException {
+        List<SettingItemModel> group = new ArrayList<SettingItemModel>(FIRST_GROUP_SIZE);
+        int groupSize = FIRST_GROUP_SIZE;
+        int index = 0;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (task.canceled) {
+                return;
+            }
+            group.add(readItem(reader, index++));
+
+            if (group.size() >= groupSize) {
+                deliver(group, task);
+                group = new ArrayList<SettingItemModel>(GROUP_SIZE);
+                groupSize = GROUP_SIZE;
+            }
+        }
+        reader.endArray();
+
+        if (!group.isEmpty()) {
+            deliver(group, task);
+        }
+    }
+
+    private void deliver(final List<SettingItemModel> group, final ParseTask task) {
+        task.post(new Runnable() {
+
+            @Override
+            public void run() {
+                task.callback.onItemsParsed(group);
+            }
+        });
+    }
+
+    /**
+     * @param index
+     *            ûָidʱñļеΪid
+     */
+    private SettingItemModel readItem(JsonReader reader, int index) throws IOException {
+        // typeidmodelĹ죬ȶ
+        int type = SettingItemModel.TYPE_SIMPLE;
+        int id = index;
+        int customHeight = 0;
+        int bgType = BG_TYPE_NONE;
+        CharSequence leftText = null;
+        int leftIcon = 0;
+        int leftIconWidth = 0;
+        int leftIconHeight = 0;
+        CharSequence rightText = null;
+        int rightIcon = 0;
+        int rightIconWidth = 0;
+        int rightIconHeight = 0;
+        int rightTextLeftPadding = 0;
+        boolean showArrow = true;
+        int redPointType = RED_POINT_TYPE_NONE;
+        CharSequence switchText = null;
+        boolean switchChecked = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if ("id".equals(name)) {
+                id = reader.nextInt();
+            } else if ("type".equals(name)) {
+                type = parseType(reader.nextString());
+            } else if ("customHeight".equals(name)) {
+                customHeight = readDimension(reader);
+            } else if ("bgType".equals(name)) {
+                bgType = parseBgType(reader.nextString());
+            } else if ("leftText".equals(name)) {
+                leftText = readText(reader);
+            } else if ("leftIcon".equals(name)) {
+                leftIcon = readDrawable(reader);
+            } else if ("leftIconWidth".equals(name)) {
+                leftIconWidth = readDimension(reader);
+            } else if ("leftIconHeight".equals(name)) {
+                leftIconHeight = readDimension(reader);
+            } else if ("rightText".equals(name)) {
+                rightText = readText(reader);
+            } else if ("rightIcon".equals(name)) {
+                rightIcon = readDrawable(reader);
+            } else if ("rightIconWidth".equals(name)) {
+                rightIconWidth = readDimension(reader);
+            } else if ("rightIconHeight".equals(name)) {
+                rightIconHeight = readDimension(reader);
+            } else if ("rightTextLeftPadding".equals(name)) {
+                rightTextLeftPadding = readDimension(reader);
+            } else if ("showArrow".equals(name)) {
+                showArrow = reader.nextBoolean();
+            } else if ("redPoint".equals(name)) {
+                redPointType = parseRedPointType(reader.nextString());
+            } else if ("switchText".equals(name)) {
+                switchText = readText(reader);
+            } else if ("switchChecked".equals(name)) {
+                switchChecked = reader.nextBoolean();
+            } else {
+                // ʶֱֶԺչ
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        SettingItemModel model = new SettingItemModel(type, id);
+        model.setCustomHeight(customHeight);
+        model.setBgType(bgType);
+        model.setLeftText(leftText);
+        model.setLeftIcon(leftIcon, leftIconWidth, leftIconHeight);
+        model.setRightText(rightText);
+        model.setRightIcon(rightIcon, rightIconWidth, rightIconHeight);
+        model.setRightTextLeftPadding(rightTextLeftPadding);
+        model.setShowArrow(showArrow);
+        model.setRedPointType(redPointType);
+        model.setSwitchText(switchText);
+        model.setSwitchChecked(switchChecked);
+        return model;
+    }
+
+    private static int parseType(String value) {
+        if ("simple".equals(value)) {
+            return SettingItemModel.TYPE_SIMPLE;
+        } else if ("switch".equals(value)) {
+            return SettingItemModel.TYPE_SWITCH;
+        }
+        throw new RuntimeException("Unknown item type: " + value);
+    }
+
+    private static int parseBgType(String value) {
+        if ("none".equals(value)) {
+            return BG_TYPE_NONE;
+        } else if ("single".equals(value)) {
+            return BG_TYPE_SINGLE;
+        } else if ("top".equals(value)) {
+            return BG_TYPE_TOP;
+        } else if ("middle".equals(value)) {
+            return BG_TYPE_MIDDLE;
+        } else if ("bottom".equals(value)) {
+            return BG_TYPE_BOTTOM;
+        }
+        throw new RuntimeException("Unknown bgType: " + value);
+    }
+
+    private static int parseRedPointType(String value) {
+        if ("none".equals(value)) {
+            return RED_POINT_TYPE_NONE;
+        } else if ("dot".equals(value)) {
+            return RED_POINT_TYPE_DOT;
+        } else if ("new".equals(value)) {
+            return RED_POINT_TYPE_NEW;
+        }
+        throw new RuntimeException("Unknown redPoint: " + value);
+    }
+
+    /**
+     * dpתأxmldimensionһ
+     */
+    private int readDimension(JsonReader reader) throws IOException {
+        return (int) (reader.nextDouble() * mDensity + 0.5f);
+    }
+
+    private CharSequence readText(JsonReader reader) throws IOException {
+        String value = reader.nextString();
+        if (!value.startsWith(STRING_REF_PREFIX)) {
+            return value;
+        }
+        String name = value.substring(STRING_REF_PREFIX.length());
+        int resId = mResources.getIdentifier(name, "string", mPackageName);
+        if (resId == 0) {
+            throw new RuntimeException("String resource not found: " + name);
+        }
+        return mResources.getText(resId);
+    }
+
+    private int readDrawable(JsonReader reader) throws IOException {
+        String name = reader.nextString();
+        synchronized (mDrawableIds) {
+            Integer resId = mDrawableIds.get(name);
+            if (resId == null) {
+                resId = mResources.getIdentifier(name, "drawable", mPackageName);
+                if (resId == 0) {
+                    throw new RuntimeException("Drawable resource not found: " + name);
+                }
+                mDrawableIds.put(name, resId);
+            }
+            return resId;
+        }
+    }
+}
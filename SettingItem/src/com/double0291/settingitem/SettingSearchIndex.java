@@ -0,0 +1,358 @@
+package com.double0291.settingitem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link SettingItemModel}leftTextrightTextswitchText
+ * <p>
+ * ÿְֺ֣bigraműѯʱֻȡѯеű̵ǸgramȷϺѡǷİѯʣ
+ * Ҫɨ֣ûзִʣbigramͬá
+ * </p>
+ * <p>
+ * model󣬵setLeftTextsetRightTextsetSwitchTextԶһmodelͬһʱֻһ
+ * model{@link SettingSimpleItem}{@link SettingFlatItem}setLeftTextsetRightText{@link SettingSwitchItem}setTextͬ޸model
+ * ͬ
+ * </p>
+ * ֿͷƥ &gt; ʿͷƥ &gt; мƥ䣬ͬ֡ұֳٰ֣ȴӶ̵󰴼˳
+ * κAndroid̰࣬߳ȫģֻUI߳ʹá
+ */
+public final class SettingSearchIndex {
+    private static final int MATCH_PREFIX = 3;
+    private static final int MATCH_WORD = 2;
+    private static final int MATCH_INSIDE = 1;
+
+    private static final int WEIGHT_PRIMARY = 2;
+    private static final int WEIGHT_SECONDARY = 1;
+
+    private final HashMap<Integer, Entry> mEntries = new HashMap<Integer, Entry>();
+    /**
+     * űHashSetѯʱ˳죬Ҳʡڴ档ͬһgramģ
+     * ֻҪһԪرȽϾȥأɾʱһԪλ˳Ӱ
+     */
+    private final HashMap<Character, ArrayList<Entry>> mUnigrams = new HashMap<Character, ArrayList<Entry>>();
+    private final HashMap<Integer, ArrayList<Entry>> mBigrams = new HashMap<Integer, ArrayList<Entry>>();
+
+    /**
+     * ˳ʱȽ
+     */
+    private int mNextOrder;
+
+    /**
+     * ѯʱƥ飬ÿβѯ
+     */
+    private Entry[] mMatches = new Entry[0];
+
+    /**
+     * idͬmodelᱻ滻
+     *
+     * @param model
+     */
+    public void add(SettingItemModel model) {
+        Entry old = mEntries.get(model.getId());
+        if (old != null) {
+            removeEntry(old);
+        }
+
+        Entry entry = new Entry(model, mNextOrder++);
+        mEntries.put(model.getId(), entry);
+        addGrams(entry);
+        model.setSearchIndex(this);
+    }
+
+    public void addAll(List<SettingItemModel> models) {
+        for (int i = 0, size = models.size(); i < size; i++) {
+            add(models.get(i));
+        }
+    }
+
+    /**
+     * ɾ
+     *
+     * @param model
+     */
+    public void remove(SettingItemModel model) {
+        Entry entry = mEntries.get(model.getId());
+        if (entry != null && entry.model == model) {
+            removeEntry(entry);
+        }
+    }
+
+    public void clear() {
+        for (Entry entry : mEntries.values()) {
+            entry.model.setSearchIndex(null);
+        }
+        mEntries.clear();
+        mUnigrams.clear();
+        mBigrams.clear();
+    }
+
+    public int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * modelֱ仯½ĵűԭļ˳{@link SettingItemModel}setterԶá
+     *
+     * @param model
+     */
+    public void update(SettingItemModel model) {
+        Entry entry = mEntries.get(model.getId());
+        if (entry == null || entry.model != model) {
+            return;
+        }
+        removeGrams(entry);
+        entry.readLabels();
+        addGrams(entry);
+    }
+
+    /**
+     * ƥ
+     *
+     * @param query
+     * @return
+     */
+    public List<SettingItemModel> search(CharSequence query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * ߵmaxResults
+     * <p>
+     * ƥķֱӼϣѯвΪÿѡƥֻһΣ
+     * ԷȫֻǰĿֻͬͺѡĸйء
+     * </p>
+     *
+     * @param query
+     *            ԴСдβհףΪʱؿб
+     * @param maxResults
+     * @return
+     */
+    public List<SettingItemModel> search(CharSequence query, int maxResults) {
+        final String q = normalize(query).trim();
+        if (q.length() == 0 || maxResults <= 0) {
+            return new ArrayList<SettingItemModel>(0);
+        }
+
+        ArrayList<Entry> candidates = findSmallestPostings(q);
+        if (candidates == null) {
+            return new ArrayList<SettingItemModel>(0);
+        }
+
+        final int candidateCount = candidates.size();
+        if (mMatches.length < candidateCount) {
+            mMatches = new Entry[Math.max(candidateCount, mMatches.length * 2)];
+        }
+        final Entry[] matches = mMatches;
+        int count = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            final Entry entry = candidates.get(i);
+            if (entry.match(q)) {
+                matches[count++] = entry;
+            }
+        }
+
+        Arrays.sort(matches, 0, count, MATCH_COMPARATOR);
+        final int size = Math.min(count, maxResults);
+        List<SettingItemModel> result = new ArrayList<SettingItemModel>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(matches[i].model);
+        }
+        // Ѿɾ
+        Arrays.fill(matches, 0, count, null);
+        return result;
+    }
+
+    /**
+     * @return ѯgram̵ĵűκһgramʱnull
+     */
+    private ArrayList<Entry> findSmallestPostings(String q) {
+        if (q.length() == 1) {
+            return mUnigrams.get(q.charAt(0));
+        }
+
+        ArrayList<Entry> smallest = null;
+        for (int i = 0, n = q.length() - 1; i < n; i++) {
+            ArrayList<Entry> postings = mBigrams.get(bigram(q.charAt(i), q.charAt(i + 1)));
+            if (postings == null) {
+                return null;
+            }
+            if (smallest == null || postings.size() < smallest.size()) {
+                smallest = postings;
+            }
+        }
+        return smallest;
+    }
+
+    private void removeEntry(Entry entry) {
+        mEntries.remove(entry.model.getId());
+        removeGrams(entry);
+        entry.model.setSearchIndex(null);
+    }
+
+    private void addGrams(Entry entry) {
+        addGrams(entry, entry.leftText);
+        addGrams(entry, entry.rightText);
+        addGrams(entry, entry.switchText);
+    }
+
+    private void addGrams(Entry entry, String label) {
+        for (int i = 0, n = label.length(); i < n; i++) {
+            final char c = label.charAt(i);
+            ArrayList<Entry> unigram = mUnigrams.get(c);
+            if (unigram == null) {
+                unigram = new ArrayList<Entry>(4);
+                mUnigrams.put(c, unigram);
+            }
+            addPosting(unigram, entry);
+
+            if (i + 1 < n) {
+                final int key = bigram(c, label.charAt(i + 1));
+                ArrayList<Entry> bigram = mBigrams.get(key);
+                if (bigram == null) {
+                    bigram = new ArrayList<Entry>(4);
+                    mBigrams.put(key, bigram);
+                }
+                addPosting(bigram, entry);
+            }
+        }
+    }
+
+    private static void addPosting(ArrayList<Entry> postings, Entry entry) {
+        final int size = postings.size();
+        if (size == 0 || postings.get(size - 1) != entry) {
+            postings.add(entry);
+        }
+    }
+
+    private void removeGrams(Entry entry) {
+        removeGrams(entry, entry.leftText);
+        removeGrams(entry, entry.rightText);
+        removeGrams(entry, entry.switchText);
+    }
+
+    private void removeGrams(Entry entry, String label) {
+        for (int i = 0, n = label.length(); i < n; i++) {
+            final char c = label.charAt(i);
+            ArrayList<Entry> unigram = mUnigrams.get(c);
+            if (unigram != null && removePosting(unigram, entry)) {
+                mUnigrams.remove(c);
+            }
+
+            if (i + 1 < n) {
+                final int key = bigram(c, label.charAt(i + 1));
+                ArrayList<Entry> bigram = mBigrams.get(key);
+                if (bigram != null && removePosting(bigram, entry)) {
+                    mBigrams.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return ɾűΪʱtrue
+     */
+    private static boolean removePosting(ArrayList<Entry> postings, Entry entry) {
+        final int index = postings.indexOf(entry);
+        if (index >= 0) {
+            final int last = postings.size() - 1;
+            postings.set(index, postings.get(last));
+            postings.remove(last);
+        }
+        return postings.isEmpty();
+    }
+
+    private static int bigram(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    private static String normalize(CharSequence text) {
+        return text == null ? "" : text.toString().toLowerCase(Locale.US);
+    }
+
+    /**
+     * {@link Entry#match(String)}µķ
+     */
+    private static final Comparator<Entry> MATCH_COMPARATOR = new Comparator<Entry>() {
+
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+            if (lhs.score != rhs.score) {
+                return rhs.score - lhs.score;
+            }
+            if (lhs.labelLength != rhs.labelLength) {
+                return lhs.labelLength - rhs.labelLength;
+            }
+            return lhs.order - rhs.order;
+        }
+    };
+
+    /**
+     * еһ潨űʱֱ֣仯ɾɵĵű
+     */
+    private static final class Entry {
+        final SettingItemModel model;
+        final int order;
+        String leftText;
+        String rightText;
+        String switchText;
+
+        /**
+         * һβѯƥֻڲѯЧ
+         */
+        int score;
+        int labelLength;
+
+        Entry(SettingItemModel model, int order) {
+            this.model = model;
+            this.order = order;
+            readLabels();
+        }
+
+        void readLabels() {
+            leftText = normalize(model.getLeftText());
+            rightText = normalize(model.getRightText());
+            switchText = normalize(model.getSwitchText());
+        }
+
+        /**
+         * õƥ䣬{@link #score}{@link #labelLength}
+         *
+         * @return ѯʱfalse
+         */
+        boolean match(String q) {
+            score = 0;
+            labelLength = 0;
+            match(q, leftText, WEIGHT_PRIMARY);
+            match(q, switchText, WEIGHT_PRIMARY);
+            match(q, rightText, WEIGHT_SECONDARY);
+            return score > 0;
+        }
+
+        private void match(String q, String label, int weight) {
+            final int index = label.indexOf(q);
+            if (index < 0) {
+                return;
+            }
+
+            int matchType;
+            if (index == 0) {
+                matchType = MATCH_PREFIX;
+            } else if (!Character.isLetterOrDigit(label.charAt(index - 1))) {
+                matchType = MATCH_WORD;
+            } else {
+                matchType = MATCH_INSIDE;
+            }
+
+            final int matchScore = matchType * (WEIGHT_PRIMARY + 1) + weight;
+            if (matchScore > score || (matchScore == score && label.length() < labelLength)) {
+                score = matchScore;
+                labelLength = label.length();
+            }
+        }
+    }
+}
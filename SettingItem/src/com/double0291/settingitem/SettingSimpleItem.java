@@ -2,14 +2,13 @@ package com.double0291.settingitem;
 
 import android.content.Context;
 import android.content.res.TypedArray;
-import android.graphics.Paint;
+import android.graphics.Canvas;
 import android.graphics.drawable.Drawable;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.View;
-import android.widget.ImageView;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
@@ -52,12 +51,17 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
     private int mRightIconHeight;
 
     private boolean mShowRedPoint;
+    private int mRedPointType = RED_POINT_TYPE_NONE;
     private boolean mShowArrow;
     private Drawable mArrow;
 
     private TextView mLeftTextView;
     private TextView mRightTextView;
-    private ImageView mRedPointImage;
+
+    /**
+     * ⹲ĳߴ硢ɫͼͷ
+     */
+    private final SettingItemStyle mStyle;
 
     private int mItemHeight;
     private int mPadding;
@@ -65,6 +69,15 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
     private int mRedPointWidth;
     private int mBgType;
 
+    /**
+     * ΪtrueʱδµıָԼ{@link SettingOverdraw}
+     */
+    private boolean mSkipUnpressedBackground;
+    /**
+     * һñʱǷ{@link SettingItemGroup}
+     */
+    private boolean mInGroup;
+
     /**
      * ҪұtextviewǷʾicon̬MaxWidth
      */
@@ -75,6 +88,43 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
     private int mLeftTextViewMaxWidth;
     private int mRightTextLeftPadding;
 
+    /**
+     * һ{@link #bindModel(SettingItemModel)}󶨵model֮ͨsetter޸ĵֻͬmodel
+     * modelڵ{@link SettingSearchIndex}Ҳ֮
+     */
+    private SettingItemModel mBoundModel;
+
+    /**
+     * סһε룬measureʱ벻ټ
+     */
+    private final SettingWidthAllocator mWidthAllocator;
+
+    /**
+     * µǶײ0ʱҲUIˢ»Ƴٵ{@link #commitUpdate()}
+     */
+    private int mUpdateDepth;
+    private boolean mPendingRightUpdate;
+    /**
+     * ڼ仯ˣcommitʱҪ²ֺػ
+     */
+    private boolean mPendingRedPointLayout;
+
+    /**
+     * һõViewϵֵµֵͬʱٵsetterinvalidaterequestLayout
+     */
+    private int mAppliedLeftMaxWidth = -1;
+    private int mAppliedRightMaxWidth = -1;
+    private CharSequence mAppliedRightText;
+    private int mAppliedRightVisibility;
+    private Drawable mAppliedRightIcon;
+    private Drawable mAppliedArrow;
+    private int mAppliedRightIconWidth;
+    private int mAppliedRightIconHeight;
+    private int mAppliedDrawablePadding;
+
+    private int mAppliedUpdateCount;
+    private int mSkippedUpdateCount;
+
     public SettingSimpleItem(Context context) {
         this(context, null);
     }
@@ -82,12 +132,14 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
     public SettingSimpleItem(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        mPadding = this.getResources().getDimensionPixelSize(R.dimen.setting_item_horizontal_padding);
-        int defaultItemHeight = this.getResources().getDimensionPixelSize(R.dimen.setting_item_default_height);
+        mStyle = SettingItemStyle.get(context);
+        mPadding = mStyle.getPadding();
+        int defaultItemHeight = mStyle.getDefaultHeight();
 
-        mRightIconMaxWidth = (int) (getResources().getDisplayMetrics().density * 35 + 0.5);
-        mArrowMaxWidth = (int) (getResources().getDisplayMetrics().density * 15 + 0.5);
-        mArrow = getResources().getDrawable(R.drawable.arrow_right_normal);
+        mRightIconMaxWidth = mStyle.getRightIconMaxWidth();
+        mArrowMaxWidth = mStyle.getArrowMaxWidth();
+        mWidthAllocator = new SettingWidthAllocator(mPadding, mRightIconMaxWidth, mArrowMaxWidth);
+        mArrow = mStyle.newArrowDrawable(getResources());
 
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SettingItem);
 
@@ -118,8 +170,82 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
         initViews();
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        // ViewattachʱȷʱжǷǷδµı
+        final boolean skip = SettingOverdraw.canSkipUnpressedBackground(this);
+        final boolean inGroup = getParent() instanceof SettingItemGroup;
+        final boolean changed = inGroup != mInGroup || (skip != mSkipUnpressedBackground && mBgType != BG_TYPE_NONE);
+        mSkipUnpressedBackground = skip;
+        if (changed) {
+            setBackgroundDrawable(getItemBackground());
+        }
+    }
+
+    /**
+     * {@link SettingItemGroup}ʱͷָƣbgTypeʲôֻҪµɫ
+     */
+    private Drawable getItemBackground() {
+        mInGroup = getParent() instanceof SettingItemGroup;
+        if (mInGroup || (mSkipUnpressedBackground && mBgType != BG_TYPE_NONE)) {
+            return SettingOverdraw.getPressedOnlyBackground(this);
+        }
+        return mBgType != BG_TYPE_NONE ? getSelectorByType(mBgType) : null;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (mSkipUnpressedBackground && mBgType != BG_TYPE_NONE) {
+            SettingOverdraw.drawDividers(this, canvas, mBgType);
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+
+        if (mShowRedPoint) {
+            // ұTextViewߣұûʱҶ
+            int right;
+            if (mRightTextView != null && mRightTextView.getVisibility() == View.VISIBLE) {
+                right = mRightTextView.getLeft() - mRedPointMargin;
+            } else {
+                right = getWidth() - mPadding;
+            }
+            SettingRedPoint.draw(canvas, getResources(), mRedPointType, right, getHeight() / 2);
+        }
+    }
+
     @Override
     public void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // ֵĿȰʵʷ䵽Ŀ֣ƽ塢Իﶼ׼ȷ
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED) {
+            width = getResources().getDisplayMetrics().widthPixels;
+        }
+        if (calucateTextMaxWidth(width)) {
+            if (mLeftTextViewMaxWidth != mAppliedLeftMaxWidth) {
+                mAppliedLeftMaxWidth = mLeftTextViewMaxWidth;
+                mLeftTextView.setMaxWidth(mLeftTextViewMaxWidth);
+                mAppliedUpdateCount++;
+            } else {
+                mSkippedUpdateCount++;
+            }
+            if (!TextUtils.isEmpty(mRightText)) {
+                if (mRightTextViewMaxWidth != mAppliedRightMaxWidth) {
+                    mAppliedRightMaxWidth = mRightTextViewMaxWidth;
+                    mRightTextView.setMaxWidth(mRightTextViewMaxWidth);
+                    mAppliedUpdateCount++;
+                } else {
+                    mSkippedUpdateCount++;
+                }
+            }
+        }
+
         super.onMeasure(widthMeasureSpec, MeasureSpec.makeMeasureSpec(mItemHeight, MeasureSpec.EXACTLY));
         setMeasuredDimension(getMeasuredWidth(), mItemHeight);
     }
@@ -143,18 +269,8 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
      * @return
      */
     public Drawable getSelectorByType(int bgType) {
-        switch (bgType) {
-        case BG_TYPE_SINGLE:
-            return getResources().getDrawable(R.drawable.common_strip_setting_bg);
-        case BG_TYPE_TOP:
-            return getResources().getDrawable(R.drawable.common_strip_setting_top);
-        case BG_TYPE_MIDDLE:
-            return getResources().getDrawable(R.drawable.common_strip_setting_middle);
-        case BG_TYPE_BOTTOM:
-            return getResources().getDrawable(R.drawable.common_strip_setting_bottom);
-        default:
-            return getResources().getDrawable(R.drawable.common_strip_setting_bg);
-        }
+        // бͬһselectorConstantState
+        return SettingDrawableCache.getDrawable(getContext(), getBackgroundResId(bgType));
     }
 
     public int getBackgroundResId(int bgType) {
@@ -173,7 +289,7 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
     }
 
     /**
-     * ñ
+     * ñ֣modelʱͬʱ޸model
      * 
      * @param text
      */
@@ -181,8 +297,10 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
         if (!TextUtils.isEmpty(text) && mLeftTextView != null) {
             mLeftText = text;
             mLeftTextView.setText(mLeftText);
-            mLeftTextView.setTextColor(getResources().getColor(R.color.black));
             mLeftTextView.setContentDescription(mLeftText);
+            if (mBoundModel != null) {
+                mBoundModel.setLeftText(mLeftText);
+            }
         }
     }
 
@@ -195,6 +313,9 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
     public void setLeftIcon(Drawable drawable) {
         if (mLeftTextView != null) {
             mLeftIcon = drawable;
+            // ʹԭʼС֮ǰָĿߣõлᰴһiconĿȼֿ
+            mLeftIconWidth = 0;
+            mLeftIconHeight = 0;
             if (drawable == null) {
                 mLeftTextView.setCompoundDrawablesWithIntrinsicBounds(null, null, null, null);
             } else {
@@ -238,13 +359,16 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
     }
 
     /**
-     * ñҲ
+     * ñҲ֣modelʱͬʱ޸model
      * 
      * @param text
      */
     public void setRightText(CharSequence text) {
         mRightText = text;
         updateRightViews();
+        if (mBoundModel != null) {
+            mBoundModel.setRightText(mRightText);
+        }
     }
 
     /**
@@ -281,76 +405,42 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
      *            ȡֵΪ {@link #RED_POINT_TYPE_NONE}, {@link #RED_POINT_TYPE_DOT}, {@link #RED_POINT_TYPE_NEW}
      */
     public void setRedPointType(int type) {
-        switch (type) {
-        case RED_POINT_TYPE_DOT: {
-            // ͼ
-            if (mRedPointImage != null) {
-                mRedPointImage.setVisibility(View.GONE);
-            }
-            // 
-            mRedPointImage = new ImageView(getContext());
-            mRedPointImage.setId(R.id.setting_item_red_point);
-            mRedPointImage.setBackgroundResource(R.drawable.tips_dot);
-            mRedPointMargin = this.getResources().getDimensionPixelSize(R.dimen.setting_item_red_point_dot_margin);
-            mRedPointWidth = this.getResources().getDimensionPixelSize(R.dimen.setting_item_red_point_dot_width);
-
-            LayoutParams lp = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
-            lp.rightMargin = mRedPointMargin;
-            lp.addRule(RelativeLayout.LEFT_OF, R.id.setting_item_right_textview);
-            lp.addRule(RelativeLayout.CENTER_VERTICAL);
-            addView(mRedPointImage, lp);
-
-            // ҪҲUI
-            mShowRedPoint = true;
-            updateRightViews();
-            break;
+        if (type != RED_POINT_TYPE_NONE && type != RED_POINT_TYPE_DOT && type != RED_POINT_TYPE_NEW) {
+            return;
         }
-        case RED_POINT_TYPE_NEW: {
-            // ͼ
-            if (mRedPointImage != null) {
-                mRedPointImage.setVisibility(View.GONE);
-            }
-            // NEWͼ
-            mRedPointImage = new ImageView(getContext());
-            mRedPointImage.setId(R.id.setting_item_red_point);
-            mRedPointImage.setBackgroundResource(R.drawable.tips_new);
-            mRedPointMargin = this.getResources().getDimensionPixelSize(R.dimen.setting_item_red_point_new_margin);
-            mRedPointWidth = this.getResources().getDimensionPixelSize(R.dimen.setting_item_red_point_new_width);
-
-            LayoutParams lp = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
-            lp.rightMargin = mRedPointMargin;
-            lp.addRule(RelativeLayout.LEFT_OF, R.id.setting_item_right_textview);
-            lp.addRule(RelativeLayout.CENTER_VERTICAL);
-            addView(mRedPointImage, lp);
-
-            // ҪҲUI
-            mShowRedPoint = true;
-            updateRightViews();
-            break;
+        if (type == mRedPointType) {
+            return;
         }
-        case RED_POINT_TYPE_NONE: {
-            if (!mShowRedPoint) {
-                return;
-            }
 
-            if (mRedPointImage != null) {
-                mRedPointImage.setVisibility(View.GONE);
-                mRedPointImage = null;
-            }
+        // ֱdispatchDrawƣлͲҪView
+        mRedPointType = type;
+        mShowRedPoint = type != RED_POINT_TYPE_NONE;
+        mRedPointMargin = SettingRedPoint.getMargin(getResources(), type);
+        mRedPointWidth = SettingRedPoint.getWidth(getResources(), type);
 
-            // ҪҲUI
-            mShowRedPoint = false;
-            updateRightViews();
-        }
-        default:
-            break;
+        // ҪҲUIȱ仯Ҫ·ҿ
+        updateRightViews();
+        if (mUpdateDepth > 0) {
+            mPendingRedPointLayout = true;
+            return;
         }
+        requestLayout();
+        invalidate();
     }
 
     public void clearRedPoint() {
         setRedPointType(RED_POINT_TYPE_NONE);
     }
 
+    /**
+     * ȡǰĺ
+     *
+     * @return {@link #RED_POINT_TYPE_NONE}, {@link #RED_POINT_TYPE_DOT}  {@link #RED_POINT_TYPE_NEW}
+     */
+    public int getRedPointType() {
+        return mRedPointType;
+    }
+
     /**
      * Ƿʾҵļͷ
      * 
@@ -383,8 +473,97 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
         }
 
         mBgType = bgType;
-        int selectorResId = getBackgroundResId(mBgType);
-        setBackgroundResource(selectorResId);
+        setBackgroundDrawable(getItemBackground());
+    }
+
+    /**
+     * ʼ£֮õsetRightTextsetRightIconshowArrowsetRedPointTypeֻ¼״̬
+     * {@link #commitUpdate()}ʱֻһοȡˢһҲUIǶ׵ãcommitΪ׼
+     * <pre class="prettyprint">
+     * item.beginUpdate();
+     * item.setRightText(text);
+     * item.setRightIcon(icon);
+     * item.showArrow(false);
+     * item.setRedPointType(RED_POINT_TYPE_NEW);
+     * item.commitUpdate();
+     * </pre>
+     */
+    public void beginUpdate() {
+        mUpdateDepth++;
+    }
+
+    /**
+     * £ڼиĶͳһˢҲUI仯ֻһβ
+     */
+    public void commitUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new RuntimeException("commitUpdate() called without beginUpdate()!");
+        }
+
+        mUpdateDepth--;
+        if (mUpdateDepth > 0) {
+            return;
+        }
+        if (mPendingRightUpdate) {
+            mPendingRightUpdate = false;
+            updateRightViews();
+        }
+        if (mPendingRedPointLayout) {
+            mPendingRedPointLayout = false;
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * model°{@link SettingItemAdapter}Viewʱá
+     * setterͬյֺiconҲḲԭݡ
+     *
+     * @param model
+     */
+    public void bindModel(SettingItemModel model) {
+        mBoundModel = model;
+        int itemHeight = model.getCustomHeight() > 0 ? model.getCustomHeight() : mStyle.getDefaultHeight();
+        if (itemHeight != mItemHeight) {
+            mItemHeight = itemHeight;
+            requestLayout();
+        }
+
+        mLeftText = model.getLeftText();
+        mLeftTextView.setText(mLeftText);
+        mLeftTextView.setContentDescription(mLeftText);
+
+        if (model.getLeftIconResId() != 0) {
+            setLeftIcon(SettingDrawableCache.getDrawable(getContext(), model.getLeftIconResId()),
+                    model.getLeftIconWidth(), model.getLeftIconHeight());
+        } else {
+            setLeftIcon(null);
+        }
+
+        // Ҳͳһˢһ
+        beginUpdate();
+        mRightText = model.getRightText();
+        mRightTextLeftPadding = model.getRightTextLeftPadding();
+        mRightIcon = model.getRightIconResId() != 0 ? SettingDrawableCache.getDrawable(getContext(),
+                model.getRightIconResId()) : null;
+        mRightIconWidth = Math.max(0, model.getRightIconWidth());
+        mRightIconHeight = Math.min(mItemHeight, Math.max(0, model.getRightIconHeight()));
+        mShowArrow = model.isShowArrow();
+
+        if (model.getRedPointType() != mRedPointType) {
+            setRedPointType(model.getRedPointType());
+        }
+        updateRightViews();
+        commitUpdate();
+
+        if (model.getBgType() != BG_TYPE_NONE) {
+            if (model.getBgType() != mBgType) {
+                setBgType(model.getBgType());
+            }
+        } else if (mBgType != BG_TYPE_NONE) {
+            mBgType = BG_TYPE_NONE;
+            setBackgroundDrawable(getItemBackground());
+        }
     }
 
     protected void initViews() {
@@ -405,7 +584,7 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
         // id˫ʾҪλ
         mLeftTextView.setId(R.id.setting_item_left_textview);
         mLeftTextView.setSingleLine(true);
-        mLeftTextView.setTextColor(getResources().getColor(R.color.black));
+        mLeftTextView.setTextColor(mStyle.getBlackColor());
         mLeftTextView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 16);
         mLeftTextView.setGravity(Gravity.LEFT | Gravity.CENTER_VERTICAL);
         mLeftTextView.setEllipsize(TextUtils.TruncateAt.END);
@@ -417,14 +596,29 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
         lp.leftMargin = mPadding;
         lp.addRule(RelativeLayout.ALIGN_PARENT_LEFT);
         lp.addRule(RelativeLayout.CENTER_VERTICAL);
-        mLeftTextView.setMaxWidth(mLeftTextViewMaxWidth);
         addView(mLeftTextView, lp);
 
-        // ұߵTextview
+        // ұߵTextviewڵһҪʾʱŴ
+        updateRightViews();
+
+        // 
+        if (mBgType != BG_TYPE_NONE) {
+            setBackgroundDrawable(getItemBackground());
+        }
+    }
+
+    /**
+     * ұߵTextviewֻұ֡icon߼ͷʱŻ
+     */
+    private void ensureRightTextView() {
+        if (mRightTextView != null) {
+            return;
+        }
+
         mRightTextView = new TextView(getContext());
         mRightTextView.setId(R.id.setting_item_right_textview);
         mRightTextView.setSingleLine(true);
-        mRightTextView.setTextColor(getResources().getColor(R.color.setting_gray_color));
+        mRightTextView.setTextColor(mStyle.getGrayColor());
         mRightTextView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 14);
         mRightTextView.setGravity(Gravity.LEFT | Gravity.CENTER_VERTICAL);
         mRightTextView.setEllipsize(TextUtils.TruncateAt.END);
@@ -436,180 +630,209 @@ public class SettingSimpleItem extends RelativeLayout implements SettingItemCons
         rp.addRule(RelativeLayout.CENTER_VERTICAL);
         addView(mRightTextView, rp);
 
-        updateRightViews();
-
-        // 
-        if (mBgType != BG_TYPE_NONE) {
-            int selectorResId = getBackgroundResId(mBgType);
-            setBackgroundResource(selectorResId);
-        }
+        // ´ViewҪ·
+        mWidthAllocator.reset();
+
+        // ´TextViewĳʼ״̬һ
+        mAppliedRightMaxWidth = -1;
+        mAppliedRightText = null;
+        mAppliedRightVisibility = View.VISIBLE;
+        mAppliedRightIcon = null;
+        mAppliedArrow = null;
+        mAppliedRightIconWidth = 0;
+        mAppliedRightIconHeight = 0;
+        mAppliedDrawablePadding = 0;
     }
 
-    private void calucateTextMaxWidth() {
-        int contentWidth = getResources().getDisplayMetrics().widthPixels - mPadding * 2;
-
-        if (mRightText == null) {
-
-            int rightMaxWidth = 0;
-
-            if (mRightIcon != null && mShowArrow) {
-                rightMaxWidth = mRightIconMaxWidth + mPadding + mArrowMaxWidth;
-            } else if (mRightIcon != null && !mShowArrow) {
-                rightMaxWidth = mRightIconMaxWidth;
-            } else if (mRightIcon == null && mShowArrow) {
-                rightMaxWidth = mArrowMaxWidth;
-            } else {
-                rightMaxWidth = 0;
-            }
+    /**
+     * ݱʵʵõĿȼtextviewȣ{@link SettingWidthAllocator}
+     * ûб仯ʱֱӷfalseκμ㡣
+     *
+     * @param width
+     *            onMeasureʱõĿ
+     * @return ǷҪ
+     */
+    private boolean calucateTextMaxWidth(int width) {
+        // ֿ߽ڻ棬㡢ͷ仯ʱظû
+        TextWidthCache widthCache = TextWidthCache.getInstance();
+        int leftTextWidth = (int) widthCache.measureText(mLeftText, mLeftTextView.getPaint());
+        int rightTextWidth = 0;
+        if (mRightTextView != null) {
+            rightTextWidth = (int) widthCache.measureText(mRightText, mRightTextView.getPaint());
+        }
 
-            if (mShowRedPoint) {
-                rightMaxWidth += mRedPointMargin + mRedPointWidth;
-            }
+        int leftIconWidth = 0;
+        if (mLeftIcon != null) {
+            leftIconWidth = mLeftIconWidth == 0 ? mLeftIcon.getIntrinsicWidth() : mLeftIconWidth;
+            leftIconWidth += mPadding;// Ҫdrawable padding
+        }
 
-            mLeftTextViewMaxWidth = contentWidth - rightMaxWidth;
-            mRightTextViewMaxWidth = 0;
-        } else {
-            // 1Ҫȿ۳textviewpadding
-            contentWidth -= mPadding;
-            // ʾ˺㣬Ҫȥpadding
-            if (mShowRedPoint) {
-                contentWidth -= mRedPointMargin + mRedPointWidth;
+        int rightIconWidth = 0;// iconͼͷ
+        int flags = 0;
+        if (mRightIcon != null) {
+            rightIconWidth += mRightIconWidth == 0 ? mRightIcon.getIntrinsicWidth() : mRightIconWidth;
+            rightIconWidth += mPadding;// Ҫdrawable padding
+            flags |= SettingWidthAllocator.FLAG_RIGHT_ICON;
+        }
+        if (mShowArrow) {
+            rightIconWidth += mArrow.getIntrinsicWidth();
+            rightIconWidth += mPadding;// Ҫdrawable padding
+            flags |= SettingWidthAllocator.FLAG_ARROW;
+        }
+        if (mRightText != null) {
+            if (mRightTextView != null) {
+                rightIconWidth += mRightTextView.getPaddingLeft() + mRightTextView.getPaddingRight();
             }
+            flags |= SettingWidthAllocator.FLAG_RIGHT_TEXT;
+        }
 
-            // 2ȼtextviewȫʾĿ
-            int leftTextViewWidth = 0;
-            int leftIconWidth = 0;
-            int leftTextWidth = 0;
+        int redPointWidth = mShowRedPoint ? mRedPointMargin + mRedPointWidth : 0;
 
-            if (mLeftIcon != null) {
-                leftIconWidth = mLeftIconWidth == 0 ? mLeftIcon.getIntrinsicWidth() : mLeftIconWidth;
-                leftIconWidth += mPadding;// Ҫdrawable padding
-            }
+        if (!mWidthAllocator.allocate(width, leftIconWidth, leftTextWidth, rightIconWidth, rightTextWidth,
+                redPointWidth, flags)) {
+            return false;
+        }
+        mLeftTextViewMaxWidth = mWidthAllocator.getLeftMaxWidth();
+        mRightTextViewMaxWidth = mWidthAllocator.getRightMaxWidth();
+        return true;
+    }
 
-            Paint paint = mLeftTextView.getPaint();
-            leftTextWidth = (int) paint.measureText(mLeftText.toString());
-            leftTextViewWidth = leftIconWidth + leftTextWidth;
+    private void updateRightViews() {
+        // ûгʼ
+        if (mLeftTextView == null) {
+            return;
+        }
 
-            // 3ټұtextviewȫʾĿ
-            int rightTextViewWidth = 0;
-            int rightIconWidth = 0;// iconͼͷ
-            int rightTextWidth = 0;
+        if (mUpdateDepth > 0) {
+            mPendingRightUpdate = true;
+            return;
+        }
 
-            if (mRightIcon != null) {
-                rightIconWidth += mRightIconWidth == 0 ? mRightIcon.getIntrinsicWidth() : mRightIconWidth;
-                rightIconWidth += mPadding;// Ҫdrawable padding
+        // ҿȵķŵonMeasureֻõViewϵԲŻᴥrequestLayout
+        if (TextUtils.isEmpty(mRightText) && mRightIcon == null && !mShowArrow) {
+            // ұûκݣҪұߵTextview
+            if (mRightTextView != null) {
+                applyRightText(null);
+                applyRightVisibility(View.GONE);
             }
+            return;
+        }
+        ensureRightTextView();
 
-            if (mShowArrow) {
-                rightIconWidth += mArrow.getIntrinsicWidth();
-                rightIconWidth += mPadding;// Ҫdrawable padding
+        final Drawable arrow = mShowArrow ? mArrow : null;
+        int drawablePadding;
+        if (!TextUtils.isEmpty(mRightText)) {
+            if (mRightIcon != null) {
+                drawablePadding = mRightTextLeftPadding;
+            } else if (arrow != null) {
+                drawablePadding = mPadding;
+            } else {
+                drawablePadding = 0;
             }
+            applyRightText(mRightText);
+        } else {
+            // 
+            drawablePadding = mRightIcon != null && arrow != null ? mPadding / 2 : 0;
+            applyRightText(null);
+        }
 
-            paint = mRightTextView.getPaint();
-            rightTextWidth = (int) paint.measureText(mRightText.toString());
-            rightTextViewWidth = rightIconWidth + rightTextWidth + mRightTextView.getPaddingLeft()
-                    + mRightTextView.getPaddingRight();
-
-            int halfContentWidth = contentWidth / 2;
-            // 4textviewʾݶһ룬֣ʾСtextviewȳtextviewռʣĿռ
-            if (leftTextViewWidth >= halfContentWidth && rightTextViewWidth >= halfContentWidth) {
-                leftTextViewWidth = rightTextViewWidth = halfContentWidth;
-            } else if (leftTextViewWidth > halfContentWidth && rightTextViewWidth < halfContentWidth) {
-                leftTextViewWidth = contentWidth - rightTextViewWidth;
-            } else if (leftTextViewWidth < halfContentWidth && rightTextViewWidth > halfContentWidth) {
-                rightTextViewWidth = contentWidth - leftTextViewWidth;
-            }
+        applyRightVisibility(View.VISIBLE);
+        applyRightDrawables(mRightIcon, arrow, drawablePadding);
+    }
 
-            mLeftTextViewMaxWidth = leftTextViewWidth;
-            mRightTextViewMaxWidth = rightTextViewWidth;
+    /**
+     * ұTextViewֺϴõĲͬʱ
+     *
+     * @param text
+     *            Ϊʱ
+     */
+    private void applyRightText(CharSequence text) {
+        if (TextUtils.isEmpty(text)) {
+            text = null;
         }
+        if (TextUtils.equals(text, mAppliedRightText)) {
+            mSkippedUpdateCount++;
+            return;
+        }
+        mAppliedRightText = text;
+        mRightTextView.setText(text == null ? "" : text);
+        mRightTextView.setContentDescription(text);
+        mAppliedUpdateCount++;
     }
 
-    private void updateRightViews() {
-        if (mRightTextView == null) {
+    private void applyRightVisibility(int visibility) {
+        if (visibility == mAppliedRightVisibility) {
+            mSkippedUpdateCount++;
             return;
         }
+        mAppliedRightVisibility = visibility;
+        mRightTextView.setVisibility(visibility);
+        mAppliedUpdateCount++;
+    }
 
-        calucateTextMaxWidth();
-        if (mLeftTextView != null) {
-            mLeftTextView.setMaxWidth(mLeftTextViewMaxWidth);
+    /**
+     * iconͷiconboundsԼdrawable paddingϴõͬʱٵsetCompoundDrawables
+     */
+    private void applyRightDrawables(Drawable icon, Drawable arrow, int drawablePadding) {
+        int iconWidth = 0;
+        int iconHeight = 0;
+        if (icon != null) {
+            if (mRightIconWidth > 0 && mRightIconHeight > 0) {
+                iconWidth = mRightIconWidth;
+                iconHeight = mRightIconHeight;
+            } else {
+                iconWidth = icon.getIntrinsicWidth();
+                iconHeight = icon.getIntrinsicHeight();
+            }
         }
 
-        if (!TextUtils.isEmpty(mRightText)) {
-            mRightTextView.setVisibility(View.VISIBLE);
-            mRightTextView.setText(mRightText);
-            mRightTextView.setTextColor(getResources().getColor(R.color.setting_gray_color));
-            mRightTextView.setContentDescription(mRightText);
-            mRightTextView.setMaxWidth(mRightTextViewMaxWidth);
-
-            if (mRightIcon != null && mShowArrow) {
-                if (mRightIconWidth > 0 && mRightIconHeight > 0) {
-                    mArrow.setBounds(0, 0, mArrow.getIntrinsicWidth(), mArrow.getIntrinsicHeight());
-                    mRightIcon.setBounds(0, 0, mRightIconWidth, mRightIconHeight);
-                    mRightTextView.setCompoundDrawables(mRightIcon, null, mArrow, null);
-                } else {
-                    mRightTextView.setCompoundDrawablesWithIntrinsicBounds(mRightIcon, null, mArrow, null);
-                }
-
-                mRightTextView.setCompoundDrawablePadding(mRightTextLeftPadding);
-            } else if (mRightIcon != null && !mShowArrow) {
-                if (mRightIconWidth > 0 && mRightIconHeight > 0) {
-                    mRightIcon.setBounds(0, 0, mRightIconWidth, mRightIconHeight);
-                    mRightTextView.setCompoundDrawables(mRightIcon, null, null, null);
-                } else {
-                    mRightTextView.setCompoundDrawablesWithIntrinsicBounds(mRightIcon, null, null, null);
-                }
-
-                mRightTextView.setCompoundDrawablePadding(mRightTextLeftPadding);
-            } else if (mRightIcon == null && mShowArrow) {
-                mRightTextView.setCompoundDrawablesWithIntrinsicBounds(null, null, mArrow, null);
-                mRightTextView.setCompoundDrawablePadding(mPadding);
-            } else if (mRightIcon == null && !mShowArrow) {
-                mRightTextView.setCompoundDrawablesWithIntrinsicBounds(null, null, null, null);
-                mRightTextView.setCompoundDrawablePadding(0);
+        if (icon != mAppliedRightIcon || arrow != mAppliedArrow || iconWidth != mAppliedRightIconWidth
+                || iconHeight != mAppliedRightIconHeight) {
+            if (icon != null) {
+                icon.setBounds(0, 0, iconWidth, iconHeight);
             }
+            if (arrow != null) {
+                arrow.setBounds(0, 0, arrow.getIntrinsicWidth(), arrow.getIntrinsicHeight());
+            }
+            mRightTextView.setCompoundDrawables(icon, null, arrow, null);
 
+            mAppliedRightIcon = icon;
+            mAppliedArrow = arrow;
+            mAppliedRightIconWidth = iconWidth;
+            mAppliedRightIconHeight = iconHeight;
+            mAppliedUpdateCount++;
         } else {
-            // 
-            mRightTextView.setText("");
+            mSkippedUpdateCount++;
+        }
 
-            if (mRightIcon != null && mShowArrow) {
-                mRightTextView.setVisibility(View.VISIBLE);
+        if (drawablePadding != mAppliedDrawablePadding) {
+            mAppliedDrawablePadding = drawablePadding;
+            mRightTextView.setCompoundDrawablePadding(drawablePadding);
+            mAppliedUpdateCount++;
+        } else {
+            mSkippedUpdateCount++;
+        }
+    }
 
-                if (mRightIconWidth > 0 && mRightIconHeight > 0) {
-                    mRightIcon.setBounds(0, 0, mRightIconWidth, mRightIconHeight);
-                    mArrow.setBounds(0, 0, mArrow.getIntrinsicWidth(), mArrow.getIntrinsicHeight());
+    /**
+     * @return õViewϵԸ´
+     */
+    public int getAppliedUpdateCount() {
+        return mAppliedUpdateCount;
+    }
 
-                    mRightTextView.setCompoundDrawables(mRightIcon, null, mArrow, null);
-                } else {
-                    mRightTextView.setCompoundDrawablesWithIntrinsicBounds(mRightIcon, null, mArrow, null);
-                }
-                mRightTextView.setCompoundDrawablePadding(mPadding / 2);
-            } else if (mRightIcon != null && !mShowArrow) {
-                mRightTextView.setVisibility(View.VISIBLE);
+    /**
+     * @return ΪϴõֵͬԸ´
+     */
+    public int getSkippedUpdateCount() {
+        return mSkippedUpdateCount;
+    }
 
-                if (mRightIconWidth > 0 && mRightIconHeight > 0) {
-                    mRightIcon.setBounds(0, 0, mRightIconWidth, mRightIconHeight);
-                    mRightTextView.setCompoundDrawables(mRightIcon, null, null, null);
-                } else {
-                    mRightTextView.setCompoundDrawablesWithIntrinsicBounds(mRightIcon, null, null, null);
-                }
-                mRightTextView.setCompoundDrawablePadding(0);
-            } else if (mRightIcon == null && mShowArrow) {
-                mRightTextView.setVisibility(View.VISIBLE);
-                mRightTextView.setCompoundDrawablesWithIntrinsicBounds(null, null, mArrow, null);
-                mRightTextView.setCompoundDrawablePadding(0);
-            } else if (mRightIcon == null && !mShowArrow) {
-                mRightTextView.setVisibility(View.GONE);
-                
-                if (mRedPointImage != null) {
-                    LayoutParams rp = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
-                    rp.rightMargin = mPadding;
-                    rp.addRule(RelativeLayout.ALIGN_PARENT_RIGHT);
-                    rp.addRule(RelativeLayout.CENTER_VERTICAL);
-                    mRedPointImage.setLayoutParams(rp);
-                }
-            }
-        }
+    /**
+     * {@link #getAppliedUpdateCount()}{@link #getSkippedUpdateCount()}
+     */
+    public void resetUpdateCount() {
+        mAppliedUpdateCount = 0;
+        mSkippedUpdateCount = 0;
     }
 }
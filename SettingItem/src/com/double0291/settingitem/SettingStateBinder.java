@@ -0,0 +1,351 @@
+package com.double0291.settingitem;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.CompoundButton;
+import android.widget.CompoundButton.OnCheckedChangeListener;
+
+/**
+ * {@link SettingSwitchItem}Ŀ״̬󶨵{@link SettingStore}еһkeyҪԼдOnCheckedChangeListener״̬
+ * <p>
+ * дں̨߳̽УUI̲߳κI/Oʱں̨ʼȡȡǰ󶨵ĿʾĬֵȡɺٸ£
+ * лֻ޸ڴе״̬һ޸ĺȴһι̶ʱٰʱڵ޸һд룬лֻдһļ
+ * ӳپεȴʱ䡣
+ * </p>
+ * ÷
+ * <pre class="prettyprint">
+ * mBinder = new SettingStateBinder(new SettingFileStore(context, "settings.properties"));
+ * mBinder.bind(switchItem, "night_mode", false);
+ * ...
+ * // ˳ʱѻûд޸д
+ * mBinder.close();
+ * </pre>
+ * {@link #flush()}ֻUI̵߳á
+ */
+public class SettingStateBinder {
+    /**
+     * Ĭϵдӳ
+     */
+    public static final long DEFAULT_WRITE_DELAY_MS = 500;
+
+    private final SettingStore mStore;
+    private final ScheduledExecutorService mExecutor;
+    private final boolean mOwnExecutor;
+    private final long mWriteDelay;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * UI߳̿״̬ûд޸
+     */
+    private final HashMap<String, String> mValues = new HashMap<String, String>();
+    private boolean mLoaded;
+    private boolean mClosed;
+
+    /**
+     * а󶨵Ŀأȡǰ󶨵ڶȡɺ״̬{@link #close()}ʱȫ
+     */
+    private final HashMap<SettingSwitchItem, Binding> mBindings = new HashMap<SettingSwitchItem, Binding>();
+
+    /**
+     * ûд޸ģUI̺߳ͺ̨̹߳
+     */
+    private HashMap<String, String> mPendingWrites = new HashMap<String, String>();
+    private boolean mWriteScheduled;
+
+    /**
+     * ̨̱߳״ֻ̬ں̷̨߳ʡȡʧʱֻ֮޸
+     */
+    private HashMap<String, String> mPersisted;
+    /**
+     * ȡʧܣļܻбkey¶ȡɹǰֻܸں̷̨߳
+     */
+    private boolean mLoadFailed;
+    /**
+     * mPersistedлûгɹд޸ġֻں̷̨߳
+     */
+    private boolean mDirty;
+
+    /**
+     * ʹԼḷ̨́߳дӳΪ{@link #DEFAULT_WRITE_DELAY_MS}
+     *
+     * @param store
+     */
+    public SettingStateBinder(SettingStore store) {
+        this(store, Executors.newSingleThreadScheduledExecutor(), true, DEFAULT_WRITE_DELAY_MS);
+    }
+
+    /**
+     * @param store
+     * @param executor
+     *            ִжд̳߳أǵ̵߳ģ֤ȡд֮ǰ
+     * @param writeDelayMs
+     *            һ޸ĵд֮ĵȴʱ
+     */
+    public SettingStateBinder(SettingStore store, ScheduledExecutorService executor, long writeDelayMs) {
+        this(store, executor, false, writeDelayMs);
+    }
+
+    private SettingStateBinder(SettingStore store, ScheduledExecutorService executor, boolean ownExecutor,
+            long writeDelayMs) {
+        if (writeDelayMs < 0) {
+            throw new RuntimeException("Parameter writeDelayMs is illegal!");
+        }
+
+        mStore = store;
+        mExecutor = executor;
+        mOwnExecutor = ownExecutor;
+        mWriteDelay = writeDelayMs;
+        mExecutor.execute(mLoadRunnable);
+    }
+
+    /**
+     * 󶨿غkey֮󿪹صлԶ
+     *
+     * @param item
+     * @param key
+     * @param defValue
+     *            ûбʱ״̬
+     */
+    public void bind(SettingSwitchItem item, String key, boolean defValue) {
+        bind(item, key, defValue, null);
+    }
+
+    /**
+     * 󶨿غkey֮󿪹صлԶ
+     *
+     * @param item
+     * @param key
+     * @param defValue
+     *            ûбʱ״̬
+     * @param listener
+     *            ֮ٻصļΪnullȡɺ״̬ʱص
+     */
+    public void bind(SettingSwitchItem item, String key, boolean defValue, OnCheckedChangeListener listener) {
+        if (mClosed) {
+            throw new RuntimeException("SettingStateBinder is closed!");
+        }
+
+        // ȡǰʾĬֵȡǰлͬᱣ
+        final Binding binding = new Binding(key, defValue, listener);
+        mBindings.put(item, binding);
+        binding.apply(item);
+    }
+
+    /**
+     * 󶨣رֵǰ״̬
+     *
+     * @param item
+     */
+    public void unbind(SettingSwitchItem item) {
+        if (mBindings.remove(item) != null) {
+            item.setOnCheckedChangeListener(null);
+        }
+    }
+
+    /**
+     * @param key
+     * @param defValue
+     * @return ǰ״̬ûд޸ģȡǰֻܵõ󶨺޸Ĺֵ
+     */
+    public boolean getBoolean(String key, boolean defValue) {
+        final String value = mValues.get(key);
+        return value != null ? Boolean.parseBoolean(value) : defValue;
+    }
+
+    /**
+     * ޸״̬д룬Ѿ󶨵Ŀء{@link #close()}֮ûκЧ
+     *
+     * @param key
+     * @param value
+     */
+    public void putBoolean(String key, boolean value) {
+        if (mClosed) {
+            return;
+        }
+
+        final String s = Boolean.toString(value);
+        if (s.equals(mValues.get(key))) {
+            return;
+        }
+        mValues.put(key, s);
+
+        synchronized (this) {
+            mPendingWrites.put(key, s);
+            if (mWriteScheduled) {
+                // Ѿŵд޸
+                return;
+            }
+            mWriteScheduled = true;
+        }
+        mExecutor.schedule(mWriteRunnable, mWriteDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * ٵȴں̨߳д뻹ûд޸ģonPauseеáһдʧܵ޸Ҳдһ
+     */
+    public void flush() {
+        if (mClosed) {
+            return;
+        }
+        mExecutor.execute(mWriteRunnable);
+    }
+
+    /**
+     * д뻹ûд޸Ĳͷẓ̨́߳пصİ󶨣֮лٱ档ʹⲿ̳߳ʱر̳߳
+     */
+    public void close() {
+        if (mClosed) {
+            return;
+        }
+
+        mHandler.removeCallbacksAndMessages(null);
+        flush();
+        mClosed = true;
+        if (mOwnExecutor) {
+            mExecutor.shutdown();
+        }
+
+        for (SettingSwitchItem item : mBindings.keySet()) {
+            item.setOnCheckedChangeListener(null);
+        }
+        mBindings.clear();
+    }
+
+    private final Runnable mLoadRunnable = new Runnable() {
+
+        @Override
+        public void run() {
+            HashMap<String, String> values = load();
+            if (values == null) {
+                // ļܵûбһдͻᶪkeyдǰ¶ȡ
+                mLoadFailed = true;
+                values = new HashMap<String, String>();
+            }
+            mPersisted = values;
+
+            // ȡʧҲҪ֪ͨUỊ߳ȡǰ󶨵ĿʾĬֵ
+            final HashMap<String, String> loaded = new HashMap<String, String>(values);
+            mHandler.post(new Runnable() {
+
+                @Override
+                public void run() {
+                    onLoaded(loaded);
+                }
+            });
+        }
+    };
+
+    /**
+     * ں̶̨߳ȡȫ״̬
+     *
+     * @return ȡʧʱnull
+     */
+    private HashMap<String, String> load() {
+        try {
+            return new HashMap<String, String>(mStore.load());
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // Propertiesʽת
+            return null;
+        }
+    }
+
+    private void onLoaded(Map<String, String> loaded) {
+        if (mClosed) {
+            return;
+        }
+
+        // ȡǰ޸ıȶֵ
+        for (Map.Entry<String, String> entry : loaded.entrySet()) {
+            if (!mValues.containsKey(entry.getKey())) {
+                mValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+        mLoaded = true;
+
+        for (Map.Entry<SettingSwitchItem, Binding> entry : mBindings.entrySet()) {
+            entry.getValue().apply(entry.getKey());
+        }
+    }
+
+    private final Runnable mWriteRunnable = new Runnable() {
+
+        @Override
+        public void run() {
+            final HashMap<String, String> writes;
+            synchronized (SettingStateBinder.this) {
+                writes = mPendingWrites;
+                mPendingWrites = new HashMap<String, String>();
+                mWriteScheduled = false;
+            }
+            if (!writes.isEmpty()) {
+                mPersisted.putAll(writes);
+                mDirty = true;
+            }
+            if (!mDirty) {
+                return;
+            }
+
+            if (mLoadFailed) {
+                final HashMap<String, String> values = load();
+                if (values == null) {
+                    // Ȼļ޸mPersistedУһдflushʱ
+                    return;
+                }
+                // ȡʧܺ޸ıļֵ
+                values.putAll(mPersisted);
+                mPersisted = values;
+                mLoadFailed = false;
+            }
+
+            try {
+                mStore.save(mPersisted);
+                mDirty = false;
+            } catch (IOException e) {
+                // mDirtyһдflushʱһ𱣴
+            } catch (RuntimeException e) {
+                // ͬ
+            }
+        }
+    };
+
+    /**
+     * һغkeyİ
+     */
+    private final class Binding implements OnCheckedChangeListener {
+        final String key;
+        final boolean defValue;
+        final OnCheckedChangeListener listener;
+
+        Binding(String key, boolean defValue, OnCheckedChangeListener listener) {
+            this.key = key;
+            this.defValue = defValue;
+            this.listener = listener;
+        }
+
+        /**
+         * ÿ״̬ʱȥѶֵдһ
+         */
+        void apply(SettingSwitchItem item) {
+            item.setOnCheckedChangeListener(null);
+            item.setChecked(getBoolean(key, defValue));
+            item.setOnCheckedChangeListener(this);
+        }
+
+        @Override
+        public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+            putBoolean(key, isChecked);
+            if (listener != null) {
+                listener.onCheckedChanged(buttonView, isChecked);
+            }
+        }
+    }
+}
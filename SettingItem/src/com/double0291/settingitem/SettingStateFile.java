@@ -0,0 +1,277 @@
+package com.double0291.settingitem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * յĿغͺ״̬ļʱһԻָ״̬
+ * <p>
+ * ļͨNIOӳ䵽ڴ棬ָʱûн̣ҲΪÿһ󣺰idֲ±꣬ٶӦλ
+ * ÿռ1λÿռ2λ5000״ֻֽ̬ڣ󲿷id
+ * </p>
+ * ļʽˣ
+ * <pre class="prettyprint">
+ * int magic | int version | int count
+ * int[count] ids            idС
+ * byte[(count + 7) / 8]     أiǵi / 8ֽڵĵi % 8λ
+ * byte[(count + 3) / 4]     ͣiǵi / 4ֽڵĵ(i % 4) * 2λʼ2λ
+ * </pre>
+ * ÷
+ * <pre class="prettyprint">
+ * // 
+ * SettingStateFile.write(file, models);
+ * // ʱָ
+ * SettingStateFile states = SettingStateFile.open(file);
+ * states.restore(models);
+ * </pre>
+ * ļidңidҪڲͬ汾֮䱣ֲ䣬{@link SettingItemModel}idaaptɵR.idÿα붼ܱ仯id
+ * κAndroidࡣ򿪺ʵֻģڶ߳ʹá
+ */
+public final class SettingStateFile implements SettingItemConstants {
+    private static final int MAGIC = 0x53535446;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private final ByteBuffer mBuffer;
+    private final int mCount;
+    private final int mSwitchOffset;
+    private final int mRedPointOffset;
+
+    private SettingStateFile(ByteBuffer buffer, int count) {
+        mBuffer = buffer;
+        mCount = count;
+        mSwitchOffset = HEADER_SIZE + count * 4;
+        mRedPointOffset = mSwitchOffset + (count + 7) / 8;
+    }
+
+    /**
+     * ļֻӳ䵽ڴ
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     *             ļڻ߸ʽ
+     */
+    public static SettingStateFile open(File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        final MappedByteBuffer buffer;
+        try {
+            final FileChannel channel = raf.getChannel();
+            // ӳchannelرպȻЧ
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a setting state file: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported setting state file version: " + buffer.getInt(4));
+        }
+        final int count = buffer.getInt(8);
+        if (count < 0 || buffer.capacity() != fileSize(count)) {
+            throw new IOException("Corrupted setting state file: " + file);
+        }
+        return new SettingStateFile(buffer, count);
+    }
+
+    /**
+     * modelsĿغͺ״̬дʱļ滻дһʧҲƻԭļ
+     *
+     * @param file
+     * @param models
+     * @throws IOException
+     */
+    public static void write(File file, List<SettingItemModel> models) throws IOException {
+        final int size = models.size();
+        final int[] ids = new int[size];
+        final boolean[] checked = new boolean[size];
+        final int[] redPointTypes = new int[size];
+        for (int i = 0; i < size; i++) {
+            SettingItemModel model = models.get(i);
+            ids[i] = model.getId();
+            checked[i] = model.isSwitchChecked();
+            redPointTypes[i] = model.getRedPointType();
+        }
+        write(file, ids, checked, redPointTypes);
+    }
+
+    /**
+     * ֻͣҳûпʱļпضǹر״̬
+     *
+     * @param file
+     * @param ids
+     * @param redPointTypes
+     *            ids±һһӦ
+     * @throws IOException
+     */
+    public static void write(File file, int[] ids, int[] redPointTypes) throws IOException {
+        write(file, ids, new boolean[ids.length], redPointTypes);
+    }
+
+    /**
+     * ״̬鰴±һһӦidҪź
+     *
+     * @param file
+     * @param ids
+     * @param checked
+     * @param redPointTypes
+     *            ȡֵΪ{@link #RED_POINT_TYPE_NONE}, {@link #RED_POINT_TYPE_DOT}, {@link #RED_POINT_TYPE_NEW}
+     * @throws IOException
+     */
+    public static void write(File file, int[] ids, boolean[] checked, int[] redPointTypes) throws IOException {
+        final int count = ids.length;
+        if (checked.length != count || redPointTypes.length != count) {
+            throw new RuntimeException("Parameter arrays must have the same length!");
+        }
+
+        // 32λid32λԭ±꣬ǰidźõ±꣬Ҫ
+        final long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            final int type = redPointTypes[i];
+            if (type != RED_POINT_TYPE_NONE && type != RED_POINT_TYPE_DOT && type != RED_POINT_TYPE_NEW) {
+                throw new RuntimeException("Parameter redPointType is illegal!");
+            }
+            order[i] = ((long) ids[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(fileSize(count));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, count);
+        final int switchOffset = HEADER_SIZE + count * 4;
+        final int redPointOffset = switchOffset + (count + 7) / 8;
+        for (int i = 0; i < count; i++) {
+            final int id = (int) (order[i] >> 32);
+            final int index = (int) order[i];
+            if (i > 0 && id == (int) (order[i - 1] >> 32)) {
+                throw new RuntimeException("Duplicate item id: " + id);
+            }
+
+            buffer.putInt(HEADER_SIZE + i * 4, id);
+            if (checked[index]) {
+                final int offset = switchOffset + (i >> 3);
+                buffer.put(offset, (byte) (buffer.get(offset) | (1 << (i & 7))));
+            }
+            if (redPointTypes[index] != RED_POINT_TYPE_NONE) {
+                final int offset = redPointOffset + (i >> 2);
+                buffer.put(offset, (byte) (buffer.get(offset) | (redPointTypes[index] << ((i & 3) << 1))));
+            }
+        }
+
+        final File tmp = new File(file.getPath() + ".tmp");
+        final RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+        try {
+            raf.setLength(0);
+            final FileChannel channel = raf.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } finally {
+            raf.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Failed to rename " + tmp + " to " + file);
+        }
+    }
+
+    private static int fileSize(int count) {
+        return HEADER_SIZE + count * 4 + (count + 7) / 8 + (count + 3) / 4;
+    }
+
+    /**
+     * @return ļе
+     */
+    public int size() {
+        return mCount;
+    }
+
+    /**
+     * @param index
+     * @return indexididС
+     */
+    public int getIdAt(int index) {
+        return mBuffer.getInt(HEADER_SIZE + index * 4);
+    }
+
+    /**
+     * ֲid
+     *
+     * @param id
+     * @return ļʱ-1
+     */
+    public int indexOf(int id) {
+        int low = 0;
+        int high = mCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int midId = getIdAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isCheckedAt(int index) {
+        return (mBuffer.get(mSwitchOffset + (index >> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    public int getRedPointTypeAt(int index) {
+        return (mBuffer.get(mRedPointOffset + (index >> 2)) >> ((index & 3) << 1)) & 3;
+    }
+
+    /**
+     * @param id
+     * @param defValue
+     * @return idļʱdefValue
+     */
+    public boolean isChecked(int id, boolean defValue) {
+        final int index = indexOf(id);
+        return index >= 0 ? isCheckedAt(index) : defValue;
+    }
+
+    /**
+     * @param id
+     * @param defValue
+     * @return idļʱdefValue
+     */
+    public int getRedPointType(int id, int defValue) {
+        final int index = indexOf(id);
+        return index >= 0 ? getRedPointTypeAt(index) : defValue;
+    }
+
+    /**
+     * ļе״ָ̬modelsļеmodelֲ
+     *
+     * @param models
+     * @return ָ״̬model
+     */
+    public int restore(List<SettingItemModel> models) {
+        int restored = 0;
+        for (int i = 0, size = models.size(); i < size; i++) {
+            final SettingItemModel model = models.get(i);
+            final int index = indexOf(model.getId());
+            if (index >= 0) {
+                model.setSwitchChecked(isCheckedAt(index));
+                model.setRedPointType(getRedPointTypeAt(index));
+                restored++;
+            }
+        }
+        return restored;
+    }
+}
@@ -0,0 +1,28 @@
+package com.double0291.settingitem;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * ״̬ĳ־ûˣĬʵ{@link SettingFileStore}ҲԻݿ洢
+ * <p>
+ * ֻ{@link SettingStateBinder}ĺ̨߳ãҲͬʱãʵֱI/O
+ * </p>
+ */
+public interface SettingStore {
+    /**
+     * ȡȫ״̬
+     *
+     * @return ûбκ״̬ʱؿյMap
+     * @throws IOException
+     */
+    Map<String, String> load() throws IOException;
+
+    /**
+     * valuesǱȫ״̬
+     *
+     * @param values
+     * @throws IOException
+     */
+    void save(Map<String, String> values) throws IOException;
+}
@@ -2,6 +2,7 @@ package com.double0291.settingitem;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.drawable.Drawable;
 import android.text.TextUtils;
 import android.text.TextUtils.TruncateAt;
@@ -18,6 +19,20 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
     private int mBgType;
     private boolean mChecked;
 
+    /**
+     * ΪtrueʱδµıָԼ{@link SettingOverdraw}
+     */
+    private boolean mSkipUnpressedBackground;
+    /**
+     * һñʱǷ{@link SettingItemGroup}
+     */
+    private boolean mInGroup;
+
+    /**
+     * ⹲ĳߴɫ
+     */
+    private final SettingItemStyle mStyle;
+
     private int mItemHeight;
     private int mPadding;
 
@@ -27,12 +42,23 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
     private int mLeftIconHeight;
     private Switch mSwitch;
 
+    /**
+     * һ{@link #bindModel(SettingItemModel)}󶨵model֮ͨsetter޸ĵֻͬmodel
+     * modelڵ{@link SettingSearchIndex}Ҳ֮
+     */
+    private SettingItemModel mBoundModel;
+
+    public SettingSwitchItem(Context context) {
+        this(context, null);
+    }
+
     public SettingSwitchItem(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        mPadding = this.getResources().getDimensionPixelSize(R.dimen.setting_item_horizontal_padding);
+        mStyle = SettingItemStyle.get(context);
+        mPadding = mStyle.getPadding();
 
-        int defaultItemHeight = this.getResources().getDimensionPixelSize(R.dimen.setting_item_default_height);
+        int defaultItemHeight = mStyle.getDefaultHeight();
 
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SettingItem);
 
@@ -76,6 +102,40 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
         }
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        // ViewattachʱȷʱжǷǷδµı
+        final boolean skip = SettingOverdraw.canSkipUnpressedBackground(this);
+        final boolean inGroup = getParent() instanceof SettingItemGroup;
+        final boolean changed = inGroup != mInGroup || (skip != mSkipUnpressedBackground && mBgType != BG_TYPE_NONE);
+        mSkipUnpressedBackground = skip;
+        if (changed) {
+            setBackgroundDrawable(getItemBackground());
+        }
+    }
+
+    /**
+     * {@link SettingItemGroup}ʱͷָƣbgTypeʲôֻҪµɫ
+     */
+    private Drawable getItemBackground() {
+        mInGroup = getParent() instanceof SettingItemGroup;
+        if (mInGroup || (mSkipUnpressedBackground && mBgType != BG_TYPE_NONE)) {
+            return SettingOverdraw.getPressedOnlyBackground(this);
+        }
+        return mBgType != BG_TYPE_NONE ? getBgDrawable(mBgType) : null;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (mSkipUnpressedBackground && mBgType != BG_TYPE_NONE) {
+            SettingOverdraw.drawDividers(this, canvas, mBgType);
+        }
+    }
+
     /**
      * bgTypeضӦselectorԴ
      * 
@@ -84,22 +144,27 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
      * @return
      */
     public Drawable getBgDrawable(int bgType) {
+        // бͬһ9-patchConstantState
+        return SettingDrawableCache.getDrawable(getContext(), getBackgroundResId(bgType));
+    }
+
+    public int getBackgroundResId(int bgType) {
         switch (bgType) {
         case BG_TYPE_SINGLE:
-            return getResources().getDrawable(R.drawable.skin_setting_strip_bg_unpressed);
+            return R.drawable.skin_setting_strip_bg_unpressed;
         case BG_TYPE_TOP:
-            return getResources().getDrawable(R.drawable.skin_setting_strip_top_unpressed);
+            return R.drawable.skin_setting_strip_top_unpressed;
         case BG_TYPE_MIDDLE:
-            return getResources().getDrawable(R.drawable.skin_setting_strip_middle_unpressed);
+            return R.drawable.skin_setting_strip_middle_unpressed;
         case BG_TYPE_BOTTOM:
-            return getResources().getDrawable(R.drawable.skin_setting_strip_bottom_unpressed);
+            return R.drawable.skin_setting_strip_bottom_unpressed;
         default:
-            return getResources().getDrawable(R.drawable.skin_setting_strip_bg_unpressed);
+            return R.drawable.skin_setting_strip_bg_unpressed;
         }
     }
 
     /**
-     * ֱ
+     * ֱ⣬modelʱͬʱ޸model
      * 
      * @param text
      */
@@ -108,10 +173,12 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
             if (!TextUtils.isEmpty(text)) {
                 mText = text;
                 mTextView.setText(mText);
-                mTextView.setTextColor(getResources().getColor(R.color.black));
             } else {
                 mTextView.setVisibility(View.GONE);
             }
+            if (mBoundModel != null) {
+                mBoundModel.setSwitchText(text);
+            }
         }
     }
 
@@ -124,6 +191,9 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
     public void setLeftIcon(Drawable drawable) {
         if (mTextView != null) {
             mLeftIcon = drawable;
+            // ʹԭʼС֮ǰָĿߣõлһiconĿ
+            mLeftIconWidth = 0;
+            mLeftIconHeight = 0;
             if (drawable == null) {
                 mTextView.setCompoundDrawablesWithIntrinsicBounds(null, null, null, null);
             } else {
@@ -212,7 +282,50 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
         }
 
         mBgType = bgType;
-        setBackgroundDrawable(getBgDrawable(mBgType));
+        setBackgroundDrawable(getItemBackground());
+    }
+
+    /**
+     * model°{@link SettingItemAdapter}Viewʱá
+     * ᴥصOnCheckedChangeListener÷ҪԼȥ
+     *
+     * @param model
+     */
+    public void bindModel(SettingItemModel model) {
+        mBoundModel = model;
+        int itemHeight = model.getCustomHeight() > 0 ? model.getCustomHeight() : mStyle.getDefaultHeight();
+        if (itemHeight != mItemHeight) {
+            mItemHeight = itemHeight;
+            requestLayout();
+        }
+
+        mText = model.getSwitchText();
+        if (!TextUtils.isEmpty(mText)) {
+            mTextView.setVisibility(View.VISIBLE);
+            mTextView.setText(mText);
+            mTextView.setContentDescription(mText);
+        } else {
+            mTextView.setVisibility(View.GONE);
+        }
+
+        if (model.getLeftIconResId() != 0) {
+            setLeftIcon(SettingDrawableCache.getDrawable(getContext(), model.getLeftIconResId()),
+                    model.getLeftIconWidth(), model.getLeftIconHeight());
+        } else {
+            setLeftIcon(null);
+        }
+
+        mChecked = model.isSwitchChecked();
+        mSwitch.setChecked(mChecked);
+
+        if (model.getBgType() != BG_TYPE_NONE) {
+            if (model.getBgType() != mBgType) {
+                setBgType(model.getBgType());
+            }
+        } else if (mBgType != BG_TYPE_NONE) {
+            mBgType = BG_TYPE_NONE;
+            setBackgroundDrawable(getItemBackground());
+        }
     }
 
     private void initViews() {
@@ -224,7 +337,7 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
         }
         mTextView.setSingleLine(true);
         mTextView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 16);
-        mTextView.setTextColor(getResources().getColor(R.color.black));
+        mTextView.setTextColor(mStyle.getBlackColor());
         mTextView.setGravity(Gravity.LEFT | Gravity.CENTER);
         mTextView.setEllipsize(TruncateAt.END);
 
@@ -251,7 +364,7 @@ public class SettingSwitchItem extends RelativeLayout implements SettingItemCons
         addView(mSwitch, p2);
 
         if (mBgType != BG_TYPE_NONE) {
-            setBackgroundDrawable(getBgDrawable(mBgType));
+            setBackgroundDrawable(getItemBackground());
         }
     }
 }
@@ -0,0 +1,125 @@
+package com.double0291.settingitem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.text.TextPaint;
+import android.util.TypedValue;
+import android.widget.TextView;
+
+/**
+ * ں̨߳ǰһ{@link SettingItemModel}ֿȡ
+ * <p>
+ * õĻʴӺͱȫһTextView16spɫұ14sp setting_gray_colorƶ
+ * Ⱥ͵ֵ{@link android.text.BoringLayout.Metrics}д{@link TextWidthCache}onMeasureҿȡ
+ * {@link SettingFlatItem}Layoutʱֱл棬µһҳʱUI߳ϲҪ֡
+ * صɿԼTextView棬ԲԤȲ
+ * </p>
+ * ÷
+ * <pre class="prettyprint">
+ * SettingTextPreMeasurer preMeasurer = new SettingTextPreMeasurer(context);
+ * preMeasurer.preMeasure(models);
+ * </pre>
+ * 캯ҪUI̵߳ã{@link #preMeasure}̵߳á
+ */
+public class SettingTextPreMeasurer {
+    private final TextPaint mLeftPaint;
+    private final TextPaint mRightPaint;
+    private final Executor mExecutor;
+
+    /**
+     * ʹ{@link AsyncTask#THREAD_POOL_EXECUTOR}ִв
+     *
+     * @param context
+     */
+    public SettingTextPreMeasurer(Context context) {
+        this(context, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param context
+     * @param executor
+     *            ִв̳߳
+     */
+    public SettingTextPreMeasurer(Context context, Executor executor) {
+        mExecutor = executor;
+        mLeftPaint = copyPaint(context, 16, R.color.black);
+        mRightPaint = copyPaint(context, 14, R.color.setting_gray_color);
+    }
+
+    /**
+     * һͱTextViewһµĻʣ֤keyͱʱȫͬ
+     */
+    private static TextPaint copyPaint(Context context, int textSizeSp, int colorResId) {
+        TextView textView = new TextView(context);
+        textView.setTextSize(TypedValue.COMPLEX_UNIT_SP, textSizeSp);
+        textView.setTextColor(context.getResources().getColor(colorResId));
+
+        TextPaint paint = new TextPaint();
+        paint.set(textView.getPaint());
+        return paint;
+    }
+
+    /**
+     * ں̨̲߳modelsеֺұ
+     *
+     * @param models
+     */
+    public void preMeasure(List<SettingItemModel> models) {
+        preMeasure(models, 0, models.size());
+    }
+
+    /**
+     * ں̨̲߳models[start, start + count)Χڵ֣ʺϹʱǰһҳ
+     *
+     * @param models
+     * @param start
+     * @param count
+     */
+    public void preMeasure(List<SettingItemModel> models, int start, int count) {
+        final int end = Math.min(models.size(), start + count);
+        if (start >= end) {
+            return;
+        }
+
+        // һҪֱ̨֣̲߳ӷmodel
+        final int size = end - start;
+        final List<CharSequence> leftTexts = new ArrayList<CharSequence>(size);
+        final List<CharSequence> rightTexts = new ArrayList<CharSequence>(size);
+        for (int i = start; i < end; i++) {
+            SettingItemModel model = models.get(i);
+            if (model.getType() != SettingItemModel.TYPE_SWITCH) {
+                leftTexts.add(model.getLeftText());
+                rightTexts.add(model.getRightText());
+            }
+        }
+
+        if (leftTexts.isEmpty()) {
+            return;
+        }
+
+        mExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                measure(leftTexts, rightTexts);
+            }
+        });
+    }
+
+    /**
+     * ʲ̰߳ȫģͬһʱֻһ߳ʹ
+     */
+    private synchronized void measure(List<CharSequence> leftTexts, List<CharSequence> rightTexts) {
+        TextWidthCache widthCache = TextWidthCache.getInstance();
+        for (int i = 0, size = leftTexts.size(); i < size; i++) {
+            widthCache.getBoringMetrics(leftTexts.get(i), mLeftPaint);
+        }
+        for (int i = 0, size = rightTexts.size(); i < size; i++) {
+            widthCache.getBoringMetrics(rightTexts.get(i), mRightPaint);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.double0291.settingitem;
+
+import java.util.WeakHashMap;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+
+/**
+ * ⻺ֻ⡢йصĶ{@link SettingDrawableCache}{@link SettingItemStyle}{@link SwitchStyle}á
+ * <p>
+ * ÿ¼ԼʱãĻܶȣȡֵʱֻԼñȽϣñ仯ֻؽһֵ
+ * òͬActivityͬʱʱӰ죬ÿȡֵջ档ⱻպ󻺴ֵҲᱻգ
+ * ԻֵContext⡣
+ * </p>
+ * ֻUI߳ʹá
+ *
+ * @param <V>
+ */
+final class SettingThemeCache<V> {
+    /**
+     * һʹûñ仯󴴽µֵ
+     */
+    interface Factory<V> {
+        V create(Context context);
+    }
+
+    private static final class Entry<V> {
+        final Configuration configuration;
+        final float density;
+        final V value;
+
+        Entry(Configuration configuration, float density, V value) {
+            this.configuration = new Configuration(configuration);
+            this.density = density;
+            this.value = value;
+        }
+    }
+
+    private final WeakHashMap<Resources.Theme, Entry<V>> mEntries = new WeakHashMap<Resources.Theme, Entry<V>>();
+    private final Factory<V> mFactory;
+
+    SettingThemeCache(Factory<V> factory) {
+        mFactory = factory;
+    }
+
+    /**
+     * ȡcontextӦֵúʹʱһʱ´
+     *
+     * @param context
+     * @return
+     */
+    V get(Context context) {
+        final Resources res = context.getResources();
+        final Configuration config = res.getConfiguration();
+        final float density = res.getDisplayMetrics().density;
+
+        final Resources.Theme theme = context.getTheme();
+        Entry<V> entry = mEntries.get(theme);
+        if (entry == null || entry.density != density || entry.configuration.diff(config) != 0) {
+            entry = new Entry<V>(config, density, mFactory.create(context));
+            mEntries.put(theme, entry);
+        }
+        return entry.value;
+    }
+
+    /**
+     * Ļ
+     */
+    void clear() {
+        mEntries.clear();
+    }
+}
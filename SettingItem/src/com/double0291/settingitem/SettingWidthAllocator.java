@@ -0,0 +1,156 @@
+package com.double0291.settingitem;
+
+/**
+ * ȵķ㷨{@link SettingSimpleItem}гκAndroidֱ࣬JVMкͲԡ
+ * <p>
+ * 
+ * <ul>
+ * <li>ұûʱұֻԤiconͷͺȣ඼ߣ</li>
+ * <li>ұʱݶһ룬֣ʾСһߣȳһռʣĿռ䡣</li>
+ * </ul>
+ * һεᱻס벻ʱ{@link #allocate}ֱӷfalseκμ㡣
+ * </p>
+ * пȵĵλء
+ */
+public final class SettingWidthAllocator {
+    /**
+     * ұ
+     */
+    public static final int FLAG_RIGHT_TEXT = 1;
+
+    /**
+     * ұicon
+     */
+    public static final int FLAG_RIGHT_ICON = 1 << 1;
+
+    /**
+     * ʾͷ
+     */
+    public static final int FLAG_ARROW = 1 << 2;
+
+    private final int mPadding;
+    private final int mRightIconMaxWidth;
+    private final int mArrowMaxWidth;
+
+    private int mWidth = -1;
+    private int mLeftIconWidth;
+    private int mLeftTextWidth;
+    private int mRightIconWidth;
+    private int mRightTextWidth;
+    private int mRedPointWidth;
+    private int mFlags;
+
+    private int mLeftMaxWidth;
+    private int mRightMaxWidth;
+
+    /**
+     * @param padding
+     *            Լ֮ļ
+     * @param rightIconMaxWidth
+     *            ұûʱΪұiconԤĿ
+     * @param arrowMaxWidth
+     *            ұûʱΪͷԤĿ
+     */
+    public SettingWidthAllocator(int padding, int rightIconMaxWidth, int arrowMaxWidth) {
+        mPadding = padding;
+        mRightIconMaxWidth = rightIconMaxWidth;
+        mArrowMaxWidth = arrowMaxWidth;
+    }
+
+    /**
+     * ߵȣͨ{@link #getLeftMaxWidth()}{@link #getRightMaxWidth()}ȡ
+     *
+     * @param width
+     *            ܿ
+     * @param leftIconWidth
+     *            iconĿȣiconֵļ࣬ûiconΪ0
+     * @param leftTextWidth
+     *            ʾĿ
+     * @param rightIconWidth
+     *            ұ߳Ĺ̶ȣiconͷԼǺֵļ
+     * @param rightTextWidth
+     *            ұʾĿ
+     * @param redPointWidth
+     *            Ŀȣļ࣬ûкΪ0
+     * @param flags
+     *            {@link #FLAG_RIGHT_TEXT}, {@link #FLAG_RIGHT_ICON}, {@link #FLAG_ARROW}
+     * @return һβͬ¼ʱtrue
+     */
+    public boolean allocate(int width, int leftIconWidth, int leftTextWidth, int rightIconWidth, int rightTextWidth,
+            int redPointWidth, int flags) {
+        if (width == mWidth && leftIconWidth == mLeftIconWidth && leftTextWidth == mLeftTextWidth
+                && rightIconWidth == mRightIconWidth && rightTextWidth == mRightTextWidth
+                && redPointWidth == mRedPointWidth && flags == mFlags) {
+            return false;
+        }
+        mWidth = width;
+        mLeftIconWidth = leftIconWidth;
+        mLeftTextWidth = leftTextWidth;
+        mRightIconWidth = rightIconWidth;
+        mRightTextWidth = rightTextWidth;
+        mRedPointWidth = redPointWidth;
+        mFlags = flags;
+
+        int contentWidth = width - mPadding * 2;
+
+        if ((flags & FLAG_RIGHT_TEXT) == 0) {
+            final boolean hasIcon = (flags & FLAG_RIGHT_ICON) != 0;
+            final boolean hasArrow = (flags & FLAG_ARROW) != 0;
+
+            int rightMaxWidth = 0;
+            if (hasIcon && hasArrow) {
+                rightMaxWidth = mRightIconMaxWidth + mPadding + mArrowMaxWidth;
+            } else if (hasIcon) {
+                rightMaxWidth = mRightIconMaxWidth;
+            } else if (hasArrow) {
+                rightMaxWidth = mArrowMaxWidth;
+            }
+            rightMaxWidth += redPointWidth;
+
+            mLeftMaxWidth = contentWidth - rightMaxWidth;
+            mRightMaxWidth = 0;
+        } else {
+            // 1Ҫȿ۳ݼpaddingʾ˺㣬ҪȥĿ
+            contentWidth -= mPadding + redPointWidth;
+
+            // 2ȫʾĿ
+            int leftWidth = leftIconWidth + leftTextWidth;
+            int rightWidth = rightIconWidth + rightTextWidth;
+
+            int halfContentWidth = contentWidth / 2;
+            // 3ݶһ룬֣ʾСһߣȳһռʣĿռ
+            if (leftWidth >= halfContentWidth && rightWidth >= halfContentWidth) {
+                leftWidth = rightWidth = halfContentWidth;
+            } else if (leftWidth > halfContentWidth && rightWidth < halfContentWidth) {
+                leftWidth = contentWidth - rightWidth;
+            } else if (leftWidth < halfContentWidth && rightWidth > halfContentWidth) {
+                rightWidth = contentWidth - leftWidth;
+            }
+
+            mLeftMaxWidth = leftWidth;
+            mRightMaxWidth = rightWidth;
+        }
+        return true;
+    }
+
+    /**
+     * ס룬һ{@link #allocate}һ¼
+     */
+    public void reset() {
+        mWidth = -1;
+    }
+
+    /**
+     * @return ߣicon + ֣
+     */
+    public int getLeftMaxWidth() {
+        return mLeftMaxWidth;
+    }
+
+    /**
+     * @return ұߣicon +  + ͷȣұûʱΪ0
+     */
+    public int getRightMaxWidth() {
+        return mRightMaxWidth;
+    }
+}
@@ -4,18 +4,20 @@ package com.double0291.settingitem;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.Resources;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
+import android.support.v4.view.ViewCompat;
 import android.text.Layout;
-import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.view.*;
+import android.view.animation.AnimationUtils;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
 import android.widget.CompoundButton;
 
 
@@ -44,11 +46,25 @@ public class Switch extends CompoundButton {
     private static final int TOUCH_MODE_DOWN = 1;
     private static final int TOUCH_MODE_DRAGGING = 2;
 
-    // Enum for the "typeface" XML parameter.
-    private static final int SANS = 1;
-    private static final int SERIF = 2;
-    private static final int MONOSPACE = 3;
     private static final int[] CHECKED_STATE_SET = {android.R.attr.state_checked};
+
+    private static final int THUMB_ANIMATION_DURATION = 250;
+    private static final Interpolator DEFAULT_THUMB_INTERPOLATOR = new DecelerateInterpolator();
+
+    // TODO I don't know why, but in order for the OnCheckedChangeListener to work this switch has to have an OnClickListener
+    private static final OnClickListener NO_OP_CLICK_LISTENER = new OnClickListener() {
+
+        @Override
+        public void onClick(View v) {
+            // do nothing
+        }
+    };
+
+    // Frame statistics shared by all switches, only touched on the UI thread.
+    private static float sFrameIntervalMillis;
+    private static int sAnimationFrameCount;
+    private static int sMissedFrameCount;
+
     private final Rect mTempRect = new Rect();
     private Drawable mThumbDrawable;
     private Drawable mTrackDrawable;
@@ -63,7 +79,8 @@ public class Switch extends CompoundButton {
     private int mTouchSlop;
     private float mTouchX;
     private float mTouchY;
-    private VelocityTracker mVelocityTracker = VelocityTracker.obtain();
+    // Only held while the thumb is touched, at most one switch is dragged at a time
+    private VelocityTracker mVelocityTracker;
     private int mMinFlingVelocity;
     private float mThumbPosition;
     private int mSwitchWidth;
@@ -73,11 +90,28 @@ public class Switch extends CompoundButton {
     private int mSwitchTop;
     private int mSwitchRight;
     private int mSwitchBottom;
+    // Draw geometry, recomputed on layout and track/thumb/state changes so onDraw only has to offset the thumb
+    private int mTrackPaddingLeft;
+    private int mTrackPaddingTop;
+    private int mTrackPaddingRight;
+    private int mTrackPaddingBottom;
+    private int mThumbPaddingLeft;
+    private int mThumbPaddingRight;
+    private int mSwitchInnerLeft;
+    private int mSwitchInnerTop;
+    private int mSwitchInnerRight;
+    private int mSwitchInnerBottom;
     private TextPaint mTextPaint;
     private ColorStateList mTextColors;
+    private int mTextColor;
+    private int[] mSwitchDrawableState;
     private Layout mOnLayout;
     private Layout mOffLayout;
+    private boolean mTextLayoutsDirty = true;
     private TransformationMethod2 mSwitchTransformationMethod;
+    private int mThumbAnimationDuration = THUMB_ANIMATION_DURATION;
+    private Interpolator mThumbInterpolator = DEFAULT_THUMB_INTERPOLATOR;
+    private ThumbAnimation mThumbAnimation;
 
     /**
      * Construct a new Switch with default styling.
@@ -112,40 +146,32 @@ public class Switch extends CompoundButton {
         Resources res = getResources();
         mTextPaint.density = res.getDisplayMetrics().density;
 
-
-        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.Switch, defStyle, R.style.WYStyle_Switch);
-
-        mThumbDrawable = a.getDrawable(R.styleable.Switch_thumb);
-        mTrackDrawableOff = a.getDrawable(R.styleable.Switch_track_off);
-        mTrackDrawableOn = a.getDrawable(R.styleable.Switch_track_on);
-        mTextOn = a.getText(R.styleable.Switch_textOn);
-        mTextOff = a.getText(R.styleable.Switch_textOff);
-        mThumbTextPadding = a.getDimensionPixelSize(R.styleable.Switch_thumbTextPadding, 0);
-        mSwitchMinWidth = a.getDimensionPixelSize(R.styleable.Switch_switchMinWidth, 0);
-        mSwitchPadding = a.getDimensionPixelSize(R.styleable.Switch_switchPadding, 0);
-
-        int appearance = a.getResourceId(R.styleable.Switch_switchTextAppearance, 0);
-        if (appearance != 0) {
-            setSwitchTextAppearance(context, appearance);
+        // Switches without XML attributes share the resolved style, only the drawables are created per instance
+        SwitchStyle style = SwitchStyle.obtain(context, attrs, defStyle);
+
+        mThumbDrawable = style.newThumbDrawable(res);
+        mTrackDrawableOff = style.newTrackOffDrawable(res);
+        mTrackDrawableOn = style.newTrackOnDrawable(res);
+        mTextOn = style.getTextOn();
+        mTextOff = style.getTextOff();
+        mThumbTextPadding = style.getThumbTextPadding();
+        mSwitchMinWidth = style.getSwitchMinWidth();
+        mSwitchPadding = style.getSwitchPadding();
+        updateThumbPadding();
+
+        SwitchStyle.TextAppearance appearance = style.getTextAppearance();
+        if (appearance != null) {
+            setSwitchTextAppearance(appearance);
         }
-        a.recycle();
 
-        ViewConfiguration config = ViewConfiguration.get(context);
-        mTouchSlop = config.getScaledTouchSlop();
-        mMinFlingVelocity = config.getScaledMinimumFlingVelocity();
+        mTouchSlop = style.getTouchSlop();
+        mMinFlingVelocity = style.getMinFlingVelocity();
 
         // Refresh display with current params
         refreshDrawableState();
         setChecked(isChecked());
 
-        // TODO I don't know why, but in order for the OnCheckedChangeListener to work this switch has to have an OnClickListener
-        this.setOnClickListener(new OnClickListener() {
-
-            @Override
-            public void onClick(View v) {
-                // do nothing
-            }
-        });
+        this.setOnClickListener(NO_OP_CLICK_LISTENER);
     }
 
     /**
@@ -154,43 +180,31 @@ public class Switch extends CompoundButton {
      * @attr ref android.R.styleable#Switch_switchTextAppearance
      */
     public void setSwitchTextAppearance(Context context, int resid) {
-        TypedArray appearance = context.obtainStyledAttributes(resid, R.styleable.TextAppearanceSwitch);
-
-        ColorStateList colors;
-        int ts;
+        setSwitchTextAppearance(SwitchStyle.TextAppearance.read(context, resid));
+    }
 
-        colors = appearance.getColorStateList(R.styleable.TextAppearanceSwitch_switch_textColor);
-        if (colors != null) {
-            mTextColors = colors;
+    private void setSwitchTextAppearance(SwitchStyle.TextAppearance appearance) {
+        if (appearance.textColors != null) {
+            mTextColors = appearance.textColors;
         } else {
             // If no color set in TextAppearance, default to the view's textColor
             mTextColors = getTextColors();
         }
+        updateTextColor();
 
-        ts = appearance.getDimensionPixelSize(R.styleable.TextAppearanceSwitch_switch_textSize, 0);
+        int ts = appearance.textSize;
         if (ts != 0) {
             if (ts != mTextPaint.getTextSize()) {
                 mTextPaint.setTextSize(ts);
+                mTextLayoutsDirty = true;
                 requestLayout();
             }
         }
 
-        int typefaceIndex, styleIndex;
-
-        typefaceIndex = appearance.getInt(R.styleable.TextAppearanceSwitch_typeface, -1);
-        styleIndex = appearance.getInt(R.styleable.TextAppearanceSwitch_textStyle, -1);
-
-        setSwitchTypefaceByIndex(typefaceIndex, styleIndex);
+        setSwitchTypefaceByIndex(appearance.typefaceIndex, appearance.styleIndex);
 
-        boolean allCaps = appearance.getBoolean(R.styleable.TextAppearanceSwitch_switch_textAllCaps, false);
-        if (allCaps) {
-            mSwitchTransformationMethod = new AllCapsTransformationMethod(getContext());
-            mSwitchTransformationMethod.setLengthChangesAllowed(true);
-        } else {
-            mSwitchTransformationMethod = null;
-        }
-
-        appearance.recycle();
+        mSwitchTransformationMethod = appearance.transformationMethod;
+        mTextLayoutsDirty = true;
     }
 
     public void setSwitchTypeface(Typeface tf, int style) {
@@ -212,6 +226,7 @@ public class Switch extends CompoundButton {
             mTextPaint.setTextSkewX(0);
             setSwitchTypeface(tf);
         }
+        mTextLayoutsDirty = true;
     }
 
     /**
@@ -224,6 +239,7 @@ public class Switch extends CompoundButton {
     public void setSwitchTypeface(Typeface tf) {
         if (mTextPaint.getTypeface() != tf) {
             mTextPaint.setTypeface(tf);
+            mTextLayoutsDirty = true;
 
             requestLayout();
             invalidate();
@@ -321,6 +337,8 @@ public class Switch extends CompoundButton {
      */
     public void setTrackDrawable(Drawable track) {
         mTrackDrawable = track;
+        updateTrackPadding();
+        updateSwitchGeometry();
         requestLayout();
     }
 
@@ -352,6 +370,7 @@ public class Switch extends CompoundButton {
      */
     public void setThumbDrawable(Drawable thumb) {
         mThumbDrawable = thumb;
+        updateThumbPadding();
         requestLayout();
     }
 
@@ -371,6 +390,7 @@ public class Switch extends CompoundButton {
      */
     public void setTextOn(CharSequence textOn) {
         mTextOn = textOn;
+        mTextLayoutsDirty = true;
         requestLayout();
     }
 
@@ -390,21 +410,70 @@ public class Switch extends CompoundButton {
      */
     public void setTextOff(CharSequence textOff) {
         mTextOff = textOff;
+        mTextLayoutsDirty = true;
         requestLayout();
     }
 
+    /**
+     * Get the duration of the thumb animation played when the checked state changes.
+     *
+     * @return Duration in milliseconds
+     */
+    public int getThumbAnimationDuration() {
+        return mThumbAnimationDuration;
+    }
+
+    /**
+     * Set the duration of the thumb animation played when the checked state changes. A full track travel takes this long, shorter
+     * travels and flings finish proportionally faster. 0 disables the animation.
+     *
+     * @param duration Duration in milliseconds
+     */
+    public void setThumbAnimationDuration(int duration) {
+        mThumbAnimationDuration = Math.max(0, duration);
+    }
+
+    /**
+     * Set the interpolator of the thumb animation. The fling velocity hand-off assumes a decelerating curve like the default
+     * {@link DecelerateInterpolator}.
+     *
+     * @param interpolator Interpolator, or null for the default one
+     */
+    public void setThumbInterpolator(Interpolator interpolator) {
+        mThumbInterpolator = interpolator != null ? interpolator : DEFAULT_THUMB_INTERPOLATOR;
+    }
+
+    /**
+     * @return Number of thumb animation frames rendered by all switches since the last {@link #resetAnimationStats()}
+     */
+    public static int getAnimationFrameCount() {
+        return sAnimationFrameCount;
+    }
+
+    /**
+     * @return Number of thumb animation frames that arrived more than one and a half display refresh intervals after the previous one
+     */
+    public static int getMissedFrameCount() {
+        return sMissedFrameCount;
+    }
+
+    public static void resetAnimationStats() {
+        sAnimationFrameCount = 0;
+        sMissedFrameCount = 0;
+    }
+
     @Override
     public void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        if (mOnLayout == null) {
+        if (mTextLayoutsDirty) {
             mOnLayout = makeLayout(mTextOn);
-        }
-        if (mOffLayout == null) {
             mOffLayout = makeLayout(mTextOff);
+            mTextLayoutsDirty = false;
         }
 
-        mTrackDrawable.getPadding(mTempRect);
-        final int maxTextWidth = Math.max(mOnLayout.getWidth(), mOffLayout.getWidth());
-        final int switchWidth = Math.max(mSwitchMinWidth, maxTextWidth * 2 + mThumbTextPadding * 4 + mTempRect.left + mTempRect.right);
+        final int onTextWidth = mOnLayout != null ? mOnLayout.getWidth() : 0;
+        final int offTextWidth = mOffLayout != null ? mOffLayout.getWidth() : 0;
+        final int maxTextWidth = Math.max(onTextWidth, offTextWidth);
+        final int switchWidth = Math.max(mSwitchMinWidth, maxTextWidth * 2 + mThumbTextPadding * 4 + mTrackPaddingLeft + mTrackPaddingRight);
         final int switchHeight = mTrackDrawable.getIntrinsicHeight();
 
         //mThumbWidth = maxTextWidth + mThumbTextPadding * 2;
@@ -422,13 +491,25 @@ public class Switch extends CompoundButton {
 
     @Override
     public boolean onTouchEvent(MotionEvent ev) {
-        mVelocityTracker.addMovement(ev);
         final int action = ev.getAction();
+        if (action != MotionEvent.ACTION_DOWN && mVelocityTracker != null) {
+            mVelocityTracker.addMovement(ev);
+        }
         switch (action) {
             case MotionEvent.ACTION_DOWN: {
                 final float x = ev.getX();
                 final float y = ev.getY();
                 if (isEnabled() && hitThumb(x, y)) {
+                    // Catch the thumb where it is
+                    if (mThumbAnimation != null) {
+                        mThumbAnimation.cancel();
+                    }
+                    if (mVelocityTracker == null) {
+                        mVelocityTracker = VelocityTracker.obtain();
+                    } else {
+                        mVelocityTracker.clear();
+                    }
+                    mVelocityTracker.addMovement(ev);
                     mTouchMode = TOUCH_MODE_DOWN;
                     mTouchX = x;
                     mTouchY = y;
@@ -477,7 +558,7 @@ public class Switch extends CompoundButton {
                     return true;
                 }
                 mTouchMode = TOUCH_MODE_IDLE;
-                mVelocityTracker.clear();
+                recycleVelocityTracker();
                 break;
             }
         }
@@ -497,15 +578,27 @@ public class Switch extends CompoundButton {
     // }
     // }
 
+    @Override
+    public void toggle() {
+        // Taps animate like flings, but without initial velocity
+        animateThumbToCheckedState(!isChecked(), 0);
+    }
+
     @Override
     public void setChecked(boolean checked) {
+        if (mThumbAnimation != null) {
+            mThumbAnimation.cancel();
+        }
         super.setChecked(checked);
-        setThumbPosition(isChecked());
         if (checked) {
             mTrackDrawable = mTrackDrawableOn;
         } else {
             mTrackDrawable = mTrackDrawableOff;
         }
+        // The on and off tracks may be padded differently, so the geometry has to follow the swap
+        updateTrackPadding();
+        updateSwitchGeometry();
+        setThumbPosition(isChecked());
         invalidate();
     }
 
@@ -522,7 +615,9 @@ public class Switch extends CompoundButton {
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         super.onLayout(changed, left, top, right, bottom);
 
-        setThumbPosition(isChecked());
+        if (mThumbAnimation == null || !mThumbAnimation.isRunning()) {
+            setThumbPosition(isChecked());
+        }
 
         int switchRight;
         int switchLeft;
@@ -554,47 +649,34 @@ public class Switch extends CompoundButton {
         mSwitchTop = switchTop;
         mSwitchBottom = switchBottom;
         mSwitchRight = switchRight;
+        updateSwitchGeometry();
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        // Draw the switch
-        int switchLeft = mSwitchLeft;
-        int switchTop = mSwitchTop;
-        int switchRight = mSwitchRight;
-        int switchBottom = mSwitchBottom;
-
-        mTrackDrawable.setBounds(switchLeft, switchTop, switchRight, switchBottom);
+        // Draw the switch, the track bounds and all paddings were set up by updateSwitchGeometry()
         mTrackDrawable.draw(canvas);
 
         canvas.save();
+        canvas.clipRect(mSwitchInnerLeft, mSwitchTop, mSwitchInnerRight, mSwitchBottom);
 
-        mTrackDrawable.getPadding(mTempRect);
-        int switchInnerLeft = switchLeft + mTempRect.left;
-        int switchInnerTop = switchTop + mTempRect.top;
-        int switchInnerRight = switchRight - mTempRect.right;
-        int switchInnerBottom = switchBottom - mTempRect.bottom;
-        canvas.clipRect(switchInnerLeft, switchTop, switchInnerRight, switchBottom);
-
-        mThumbDrawable.getPadding(mTempRect);
         final int thumbPos = (int) (mThumbPosition + 0.5f);
-        int thumbLeft = switchInnerLeft - mTempRect.left + thumbPos;
-        int thumbRight = switchInnerLeft + thumbPos + mThumbWidth + mTempRect.right;
+        int thumbLeft = mSwitchInnerLeft - mThumbPaddingLeft + thumbPos;
+        int thumbRight = mSwitchInnerLeft + thumbPos + mThumbWidth + mThumbPaddingRight;
 
-        mThumbDrawable.setBounds(thumbLeft, switchTop, thumbRight, switchBottom);
+        mThumbDrawable.setBounds(thumbLeft, mSwitchTop, thumbRight, mSwitchBottom);
         mThumbDrawable.draw(canvas);
 
-        // mTextColors should not be null, but just in case
-        if (mTextColors != null) {
-            mTextPaint.setColor(mTextColors.getColorForState(getDrawableState(), mTextColors.getDefaultColor()));
-        }
-        mTextPaint.drawableState = getDrawableState();
-
         Layout switchText = getTargetCheckedState() ? mOnLayout : mOffLayout;
         if (switchText != null) {
-            canvas.translate((thumbLeft + thumbRight) / 2 - switchText.getWidth() / 2, (switchInnerTop + switchInnerBottom) / 2 - switchText.getHeight() / 2);
+            // The layout is shared with other switches, only color and state may be changed on its paint
+            TextPaint textPaint = switchText.getPaint();
+            textPaint.setColor(mTextColor);
+            textPaint.drawableState = mSwitchDrawableState;
+
+            canvas.translate((thumbLeft + thumbRight) / 2 - switchText.getWidth() / 2, (mSwitchInnerTop + mSwitchInnerBottom) / 2 - switchText.getHeight() / 2);
             switchText.draw(canvas);
         }
 
@@ -615,6 +697,7 @@ public class Switch extends CompoundButton {
         super.drawableStateChanged();
 
         int[] myDrawableState = getDrawableState();
+        mSwitchDrawableState = myDrawableState;
 
         // Set the state of the Drawable
         // Drawable may be null when checked state is set from XML, from super constructor
@@ -622,50 +705,55 @@ public class Switch extends CompoundButton {
             mThumbDrawable.setState(myDrawableState);
         if (mTrackDrawable != null)
             mTrackDrawable.setState(myDrawableState);
+        updateTextColor();
 
         invalidate();
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        // A drag can't continue once detached, don't keep the tracker of a recycled row
+        mTouchMode = TOUCH_MODE_IDLE;
+        recycleVelocityTracker();
+
+        // Jump to the final position, there is nothing left to animate
+        if (mThumbAnimation != null && mThumbAnimation.isRunning()) {
+            mThumbAnimation.cancel();
+            setThumbPosition(isChecked());
+        }
+    }
+
     @Override
     protected boolean verifyDrawable(Drawable who) {
         return super.verifyDrawable(who) || who == mThumbDrawable || who == mTrackDrawable;
     }
 
     private void setSwitchTypefaceByIndex(int typefaceIndex, int styleIndex) {
-        Typeface tf = null;
-        switch (typefaceIndex) {
-            case SANS:
-                tf = Typeface.SANS_SERIF;
-                break;
-
-            case SERIF:
-                tf = Typeface.SERIF;
-                break;
-
-            case MONOSPACE:
-                tf = Typeface.MONOSPACE;
-                break;
-        }
-
-        setSwitchTypeface(tf, styleIndex);
+        setSwitchTypeface(SwitchStyle.getTypefaceByIndex(typefaceIndex), styleIndex);
     }
 
+    /**
+     * @return A layout shared through {@link SwitchLayoutCache}, or null for an empty label so nothing is laid out or drawn
+     */
     private Layout makeLayout(CharSequence text) {
+        if (TextUtils.isEmpty(text)) {
+            return null;
+        }
         final CharSequence transformed = (mSwitchTransformationMethod != null) ? mSwitchTransformationMethod.getTransformation(text, this) : text;
-        // API 8֮ʹMath.ceilЧʸ
-        return new StaticLayout(transformed, mTextPaint, (int) Math.ceil(Layout.getDesiredWidth(transformed, mTextPaint)), Layout.Alignment.ALIGN_NORMAL, 1.f, 0, true);
+        if (TextUtils.isEmpty(transformed)) {
+            return null;
+        }
+        return SwitchLayoutCache.obtain(transformed, mTextPaint);
     }
 
     /**
      * @return true if (x, y) is within the target area of the switch thumb
      */
     private boolean hitThumb(float x, float y) {
-        mThumbDrawable.getPadding(mTempRect);
-        final int thumbTop = mSwitchTop - mTouchSlop;
-        final int thumbLeft = mSwitchLeft + (int) (mThumbPosition + 0.5f) - mTouchSlop;
-        final int thumbRight = thumbLeft + mThumbWidth + mTempRect.left + mTempRect.right + mTouchSlop;
-        final int thumbBottom = mSwitchBottom + mTouchSlop;
-        return x > thumbLeft && x < thumbRight && y > thumbTop && y < thumbBottom;
+        return SwitchGeometry.hitThumb(x, y, mSwitchLeft, mSwitchTop, mSwitchBottom, mThumbPosition, mThumbWidth,
+                mThumbPaddingLeft, mThumbPaddingRight, mTouchSlop);
     }
 
     private void cancelSuperTouch(MotionEvent ev) {
@@ -687,27 +775,67 @@ public class Switch extends CompoundButton {
 
         cancelSuperTouch(ev);
 
+        float xvel = 0;
+        if (commitChange && mVelocityTracker != null) {
+            mVelocityTracker.computeCurrentVelocity(1000);
+            xvel = mVelocityTracker.getXVelocity();
+        }
+        recycleVelocityTracker();
+
         if (commitChange) {
             boolean newState;
-            mVelocityTracker.computeCurrentVelocity(1000);
-            float xvel = mVelocityTracker.getXVelocity();
             if (Math.abs(xvel) > mMinFlingVelocity) {
                 // newState = isLayoutRtl() ? (xvel < 0) : (xvel > 0);
                 newState = xvel > 0;
             } else {
                 newState = getTargetCheckedState();
+                xvel = 0;
             }
-            animateThumbToCheckedState(newState);
+            animateThumbToCheckedState(newState, xvel);
         } else {
-            animateThumbToCheckedState(isChecked());
+            animateThumbToCheckedState(isChecked(), 0);
         }
     }
 
-    private void animateThumbToCheckedState(boolean newCheckedState) {
-        // TODO animate!
-        // float targetPos = newCheckedState ? 0 : getThumbScrollRange();
-        // mThumbPosition = targetPos;
+    private void recycleVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    /**
+     * Commit the new checked state right away and slide the thumb from where it is now to the matching end of the track.
+     *
+     * @param newCheckedState The state to commit
+     * @param velocity        Horizontal fling velocity in pixels per second, 0 if there is none
+     */
+    private void animateThumbToCheckedState(boolean newCheckedState, float velocity) {
+        final float startPosition = mThumbPosition;
         setChecked(newCheckedState);
+
+        final float targetPosition = mThumbPosition;
+        final float distance = Math.abs(targetPosition - startPosition);
+        final int range = getThumbScrollRange();
+        if (mThumbAnimationDuration == 0 || distance < 1 || range <= 0 || getWindowToken() == null) {
+            return;
+        }
+
+        // Shorter travels take proportionally less time
+        int duration = (int) (mThumbAnimationDuration * distance / range);
+        // Carry the fling over: a decelerate curve starts at twice the average speed, so pick the duration that
+        // makes the initial speed match the finger
+        if (velocity != 0 && (velocity > 0) == (targetPosition > startPosition)) {
+            duration = Math.min(duration, (int) (2000 * distance / Math.abs(velocity)));
+        }
+        if (duration <= 0) {
+            return;
+        }
+
+        if (mThumbAnimation == null) {
+            mThumbAnimation = new ThumbAnimation();
+        }
+        mThumbAnimation.start(startPosition, targetPosition, duration);
     }
 
     private boolean getTargetCheckedState() {
@@ -722,8 +850,134 @@ public class Switch extends CompoundButton {
         if (mTrackDrawable == null) {
             return 0;
         }
+        return SwitchGeometry.getThumbScrollRange(mSwitchWidth, mThumbWidth, mTrackPaddingLeft, mTrackPaddingRight);
+    }
+
+    /**
+     * Caches the padding of the current track drawable. Call whenever mTrackDrawable changes.
+     */
+    private void updateTrackPadding() {
+        // Also reached from the super constructor, before mTempRect exists, but then there is no track yet either
+        if (mTrackDrawable == null) {
+            mTrackPaddingLeft = mTrackPaddingTop = mTrackPaddingRight = mTrackPaddingBottom = 0;
+            return;
+        }
         mTrackDrawable.getPadding(mTempRect);
-        return mSwitchWidth - mThumbWidth - mTempRect.left - mTempRect.right;
+        mTrackPaddingLeft = mTempRect.left;
+        mTrackPaddingTop = mTempRect.top;
+        mTrackPaddingRight = mTempRect.right;
+        mTrackPaddingBottom = mTempRect.bottom;
+    }
+
+    /**
+     * Caches the horizontal padding of the thumb drawable. Call whenever mThumbDrawable changes.
+     */
+    private void updateThumbPadding() {
+        if (mThumbDrawable == null) {
+            mThumbPaddingLeft = mThumbPaddingRight = 0;
+            return;
+        }
+        mThumbDrawable.getPadding(mTempRect);
+        mThumbPaddingLeft = mTempRect.left;
+        mThumbPaddingRight = mTempRect.right;
+    }
+
+    /**
+     * Positions the track and computes the inner track rectangle from the switch bounds found in onLayout. Call after
+     * layout and whenever the track or its padding changes.
+     */
+    private void updateSwitchGeometry() {
+        mSwitchInnerLeft = mSwitchLeft + mTrackPaddingLeft;
+        mSwitchInnerTop = mSwitchTop + mTrackPaddingTop;
+        mSwitchInnerRight = mSwitchRight - mTrackPaddingRight;
+        mSwitchInnerBottom = mSwitchBottom - mTrackPaddingBottom;
+        if (mTrackDrawable != null) {
+            mTrackDrawable.setBounds(mSwitchLeft, mSwitchTop, mSwitchRight, mSwitchBottom);
+        }
+    }
+
+    /**
+     * Resolves the thumb text color for the current drawable state. Call after the state or the text colors change.
+     */
+    private void updateTextColor() {
+        // mTextColors should not be null, but just in case
+        if (mTextColors != null && mTextPaint != null) {
+            mTextColor = mTextColors.getColorForState(getDrawableState(), mTextColors.getDefaultColor());
+        } else if (mTextPaint != null) {
+            mTextColor = mTextPaint.getColor();
+        }
+    }
+
+    private float getFrameIntervalMillis() {
+        if (sFrameIntervalMillis == 0) {
+            WindowManager wm = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+            float refreshRate = wm.getDefaultDisplay().getRefreshRate();
+            sFrameIntervalMillis = 1000f / (refreshRate > 0 ? refreshRate : 60f);
+        }
+        return sFrameIntervalMillis;
+    }
+
+    /**
+     * Moves the thumb once per display frame. Frames are scheduled with {@link ViewCompat#postOnAnimation(View, Runnable)},
+     * which uses the Choreographer where available, and one instance is reused for the lifetime of the switch so running
+     * the animation allocates nothing.
+     */
+    private final class ThumbAnimation implements Runnable {
+        private float mFrom;
+        private float mTo;
+        private long mStartTime;
+        private long mLastFrameTime;
+        private int mDuration;
+        private boolean mRunning;
+
+        void start(float from, float to, int duration) {
+            cancel();
+            mFrom = from;
+            mTo = to;
+            mDuration = duration;
+            mStartTime = AnimationUtils.currentAnimationTimeMillis();
+            mLastFrameTime = mStartTime;
+            mRunning = true;
+
+            mThumbPosition = from;
+            invalidate();
+            ViewCompat.postOnAnimation(Switch.this, this);
+        }
+
+        void cancel() {
+            if (mRunning) {
+                mRunning = false;
+                removeCallbacks(this);
+            }
+        }
+
+        boolean isRunning() {
+            return mRunning;
+        }
+
+        @Override
+        public void run() {
+            if (!mRunning) {
+                return;
+            }
+
+            final long now = AnimationUtils.currentAnimationTimeMillis();
+            sAnimationFrameCount++;
+            if (now - mLastFrameTime > getFrameIntervalMillis() * 1.5f) {
+                sMissedFrameCount++;
+            }
+            mLastFrameTime = now;
+
+            final float t = Math.min(1f, (now - mStartTime) / (float) mDuration);
+            mThumbPosition = mFrom + (mTo - mFrom) * mThumbInterpolator.getInterpolation(t);
+            invalidate();
+
+            if (t < 1f) {
+                ViewCompat.postOnAnimation(Switch.this, this);
+            } else {
+                mRunning = false;
+            }
+        }
     }
 
     // public void jumpDrawablesToCurrentState()
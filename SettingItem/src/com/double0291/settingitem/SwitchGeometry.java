@@ -0,0 +1,43 @@
+package com.double0291.settingitem;
+
+/**
+ * The thumb arithmetic of {@link Switch}, pulled out of the view so it has no Android dependencies and can be run and
+ * benchmarked on a plain JVM. All values are in pixels; {@link Switch} passes in its cached drawable paddings.
+ */
+final class SwitchGeometry {
+    private SwitchGeometry() {
+    }
+
+    /**
+     * @param switchWidth       Width of the whole switch, track padding included
+     * @param thumbWidth        Width of the thumb, not including its padding
+     * @param trackPaddingLeft  Left padding of the track drawable
+     * @param trackPaddingRight Right padding of the track drawable
+     * @return How far the thumb can travel from the off position to the on position
+     */
+    static int getThumbScrollRange(int switchWidth, int thumbWidth, int trackPaddingLeft, int trackPaddingRight) {
+        return switchWidth - thumbWidth - trackPaddingLeft - trackPaddingRight;
+    }
+
+    /**
+     * @param x                 Touch x in view coordinates
+     * @param y                 Touch y in view coordinates
+     * @param switchLeft        Left edge of the switch
+     * @param switchTop         Top edge of the switch
+     * @param switchBottom      Bottom edge of the switch
+     * @param thumbPosition     Current thumb offset, 0 is fully off
+     * @param thumbWidth        Width of the thumb, not including its padding
+     * @param thumbPaddingLeft  Left padding of the thumb drawable
+     * @param thumbPaddingRight Right padding of the thumb drawable
+     * @param touchSlop         Extra slop around the thumb that still counts as a hit
+     * @return true if (x, y) is within the target area of the switch thumb
+     */
+    static boolean hitThumb(float x, float y, int switchLeft, int switchTop, int switchBottom, float thumbPosition,
+            int thumbWidth, int thumbPaddingLeft, int thumbPaddingRight, int touchSlop) {
+        final int thumbTop = switchTop - touchSlop;
+        final int thumbLeft = switchLeft + (int) (thumbPosition + 0.5f) - touchSlop;
+        final int thumbRight = thumbLeft + thumbWidth + thumbPaddingLeft + thumbPaddingRight + touchSlop;
+        final int thumbBottom = switchBottom + touchSlop;
+        return x > thumbLeft && x < thumbRight && y > thumbTop && y < thumbBottom;
+    }
+}
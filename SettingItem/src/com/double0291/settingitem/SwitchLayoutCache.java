@@ -0,0 +1,110 @@
+package com.double0291.settingitem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+/**
+ * Process wide cache of the {@link StaticLayout}s that {@link Switch} draws on its thumb. Switches that show the same on/off
+ * label with the same text attributes share one layout instead of each building their own in onMeasure.
+ * <p/>
+ * Every cached layout owns a private copy of the paint it was built with, so changing a switch's {@link TextPaint} never
+ * affects layouts already handed out. Callers may set the color and drawable state on {@link Layout#getPaint()} right before
+ * drawing, all other attributes must be left alone. Only use from the UI thread.
+ */
+final class SwitchLayoutCache {
+    private static final int MAX_SIZE = 32;
+
+    private static final LinkedHashMap<Key, Layout> sCache = new LinkedHashMap<Key, Layout>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Layout> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    // Reused for lookups, a new key is only created when a layout is added
+    private static final Key sLookupKey = new Key();
+
+    private SwitchLayoutCache() {
+    }
+
+    /**
+     * @param text  Already transformed label text, must not be empty
+     * @param paint Paint describing the text attributes
+     * @return A shared single line layout exactly as wide as the text
+     */
+    static Layout obtain(CharSequence text, TextPaint paint) {
+        final String str = text.toString();
+        sLookupKey.set(str, paint);
+        Layout layout = sCache.get(sLookupKey);
+        if (layout != null) {
+            return layout;
+        }
+
+        TextPaint layoutPaint = new TextPaint();
+        layoutPaint.set(paint);
+        layout = new StaticLayout(str, layoutPaint, (int) Math.ceil(Layout.getDesiredWidth(str, layoutPaint)),
+                Layout.Alignment.ALIGN_NORMAL, 1.f, 0, true);
+
+        Key key = new Key();
+        key.set(str, paint);
+        sCache.put(key, layout);
+        return layout;
+    }
+
+    static void clear() {
+        sCache.clear();
+    }
+
+    private static final class Key {
+        String text;
+        float textSize;
+        float textScaleX;
+        float textSkewX;
+        float density;
+        int flags;
+        Typeface typeface;
+
+        void set(String text, TextPaint paint) {
+            this.text = text;
+            this.textSize = paint.getTextSize();
+            this.textScaleX = paint.getTextScaleX();
+            this.textSkewX = paint.getTextSkewX();
+            this.density = paint.density;
+            this.flags = paint.getFlags();
+            this.typeface = paint.getTypeface();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return textSize == other.textSize && textScaleX == other.textScaleX && textSkewX == other.textSkewX
+                    && density == other.density && flags == other.flags && typeface == other.typeface
+                    && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + Float.floatToIntBits(textSkewX);
+            result = 31 * result + Float.floatToIntBits(density);
+            result = 31 * result + flags;
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.double0291.settingitem;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.ViewConfiguration;
+
+/**
+ * Immutable result of resolving {@link R.styleable#Switch} for one theme and default style. Switches created without XML
+ * attributes share one instance per (theme, defStyle), so only the first of them pays for obtainStyledAttributes, drawable
+ * inflation and the text appearance lookup. Each switch then only creates its own drawables from the shared constant states.
+ * <p/>
+ * A theme's styles are rebuilt when that theme's configuration or display density changes, see {@link SettingThemeCache}.
+ * Only use from the UI thread.
+ */
+final class SwitchStyle {
+    // Enum for the "typeface" XML parameter.
+    private static final int SANS = 1;
+    private static final int SERIF = 2;
+    private static final int MONOSPACE = 3;
+
+    private static final SettingThemeCache<SparseArray<SwitchStyle>> sCache = new SettingThemeCache<SparseArray<SwitchStyle>>(
+            new SettingThemeCache.Factory<SparseArray<SwitchStyle>>() {
+
+                @Override
+                public SparseArray<SwitchStyle> create(Context context) {
+                    return new SparseArray<SwitchStyle>();
+                }
+            });
+
+    // Drawables are only kept as a source of constant states, they are never attached to a view
+    private final Drawable mThumb;
+    private final Drawable mTrackOff;
+    private final Drawable mTrackOn;
+    private final CharSequence mTextOn;
+    private final CharSequence mTextOff;
+    private final int mThumbTextPadding;
+    private final int mSwitchMinWidth;
+    private final int mSwitchPadding;
+    private final TextAppearance mTextAppearance;
+    private final int mTouchSlop;
+    private final int mMinFlingVelocity;
+
+    private SwitchStyle(Context context, AttributeSet attrs, int defStyle) {
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.Switch, defStyle, R.style.WYStyle_Switch);
+
+        mThumb = a.getDrawable(R.styleable.Switch_thumb);
+        mTrackOff = a.getDrawable(R.styleable.Switch_track_off);
+        mTrackOn = a.getDrawable(R.styleable.Switch_track_on);
+        mTextOn = a.getText(R.styleable.Switch_textOn);
+        mTextOff = a.getText(R.styleable.Switch_textOff);
+        mThumbTextPadding = a.getDimensionPixelSize(R.styleable.Switch_thumbTextPadding, 0);
+        mSwitchMinWidth = a.getDimensionPixelSize(R.styleable.Switch_switchMinWidth, 0);
+        mSwitchPadding = a.getDimensionPixelSize(R.styleable.Switch_switchPadding, 0);
+
+        int appearance = a.getResourceId(R.styleable.Switch_switchTextAppearance, 0);
+        mTextAppearance = appearance != 0 ? TextAppearance.read(context, appearance) : null;
+        a.recycle();
+
+        ViewConfiguration config = ViewConfiguration.get(context);
+        mTouchSlop = config.getScaledTouchSlop();
+        mMinFlingVelocity = config.getScaledMinimumFlingVelocity();
+    }
+
+    /**
+     * @param context  Context whose theme the style is resolved against
+     * @param attrs    XML attributes of the switch. A style with attributes is resolved on every call and never shared.
+     * @param defStyle Theme attribute of the default style
+     */
+    static SwitchStyle obtain(Context context, AttributeSet attrs, int defStyle) {
+        if (attrs != null) {
+            return new SwitchStyle(context, attrs, defStyle);
+        }
+
+        final SparseArray<SwitchStyle> styles = sCache.get(context);
+
+        SwitchStyle style = styles.get(defStyle);
+        if (style == null) {
+            style = new SwitchStyle(context, null, defStyle);
+            // A drawable without constant state can't be handed to more than one switch
+            if (style.isShareable()) {
+                styles.put(defStyle, style);
+            }
+        }
+        return style;
+    }
+
+    static void clear() {
+        sCache.clear();
+    }
+
+    private boolean isShareable() {
+        return isShareable(mThumb) && isShareable(mTrackOff) && isShareable(mTrackOn);
+    }
+
+    private static boolean isShareable(Drawable drawable) {
+        return drawable == null || drawable.getConstantState() != null;
+    }
+
+    /**
+     * @return A new drawable sharing the constant state of the given one, or the drawable itself if it has none
+     */
+    private static Drawable newDrawable(Drawable drawable, Resources res) {
+        if (drawable == null) {
+            return null;
+        }
+        Drawable.ConstantState state = drawable.getConstantState();
+        return state != null ? state.newDrawable(res) : drawable;
+    }
+
+    Drawable newThumbDrawable(Resources res) {
+        return newDrawable(mThumb, res);
+    }
+
+    Drawable newTrackOffDrawable(Resources res) {
+        return newDrawable(mTrackOff, res);
+    }
+
+    Drawable newTrackOnDrawable(Resources res) {
+        return newDrawable(mTrackOn, res);
+    }
+
+    CharSequence getTextOn() {
+        return mTextOn;
+    }
+
+    CharSequence getTextOff() {
+        return mTextOff;
+    }
+
+    int getThumbTextPadding() {
+        return mThumbTextPadding;
+    }
+
+    int getSwitchMinWidth() {
+        return mSwitchMinWidth;
+    }
+
+    int getSwitchPadding() {
+        return mSwitchPadding;
+    }
+
+    /**
+     * @return The resolved switchTextAppearance, or null if the style has none
+     */
+    TextAppearance getTextAppearance() {
+        return mTextAppearance;
+    }
+
+    int getTouchSlop() {
+        return mTouchSlop;
+    }
+
+    int getMinFlingVelocity() {
+        return mMinFlingVelocity;
+    }
+
+    static Typeface getTypefaceByIndex(int typefaceIndex) {
+        switch (typefaceIndex) {
+            case SANS:
+                return Typeface.SANS_SERIF;
+
+            case SERIF:
+                return Typeface.SERIF;
+
+            case MONOSPACE:
+                return Typeface.MONOSPACE;
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Immutable values of a {@link R.styleable#TextAppearanceSwitch} resource.
+     */
+    static final class TextAppearance {
+        /**
+         * Null if the appearance doesn't set a color, the switch then falls back to its own text colors
+         */
+        final ColorStateList textColors;
+        /**
+         * 0 if the appearance doesn't set a size
+         */
+        final int textSize;
+        final int typefaceIndex;
+        final int styleIndex;
+        /**
+         * Null unless textAllCaps is set. The method is stateless once configured, so switches may share it.
+         */
+        final TransformationMethod2 transformationMethod;
+
+        private TextAppearance(ColorStateList textColors, int textSize, int typefaceIndex, int styleIndex,
+                TransformationMethod2 transformationMethod) {
+            this.textColors = textColors;
+            this.textSize = textSize;
+            this.typefaceIndex = typefaceIndex;
+            this.styleIndex = styleIndex;
+            this.transformationMethod = transformationMethod;
+        }
+
+        static TextAppearance read(Context context, int resid) {
+            TypedArray appearance = context.obtainStyledAttributes(resid, R.styleable.TextAppearanceSwitch);
+
+            ColorStateList colors = appearance.getColorStateList(R.styleable.TextAppearanceSwitch_switch_textColor);
+            int ts = appearance.getDimensionPixelSize(R.styleable.TextAppearanceSwitch_switch_textSize, 0);
+            int typefaceIndex = appearance.getInt(R.styleable.TextAppearanceSwitch_typeface, -1);
+            int styleIndex = appearance.getInt(R.styleable.TextAppearanceSwitch_textStyle, -1);
+
+            TransformationMethod2 transformationMethod = null;
+            boolean allCaps = appearance.getBoolean(R.styleable.TextAppearanceSwitch_switch_textAllCaps, false);
+            if (allCaps) {
+                transformationMethod = new AllCapsTransformationMethod(context);
+                transformationMethod.setLengthChangesAllowed(true);
+            }
+
+            appearance.recycle();
+            return new TextAppearance(colors, ts, typefaceIndex, styleIndex, transformationMethod);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.double0291.settingitem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.graphics.Typeface;
+import android.text.BoringLayout;
+import android.text.TextPaint;
+
+/**
+ * ڹֿȻ棬ֺ֡šdensitykeyLRṶ
+ * <p>
+ * ˢº㡢ͷҲʱ¼ֵȣ󲿷ֱûб仯
+ * ͨԱظ{@link android.graphics.Paint#measureText(String)}
+ * ͬʱԻ浥ֵ{@link BoringLayout.Metrics}{@link SettingFlatItem}Layoutʱٲһ顣
+ * </p>
+ * з̰߳ȫġ
+ */
+public final class TextWidthCache {
+    private static final int DEFAULT_MAX_SIZE = 512;
+
+    private static TextWidthCache sInstance;
+
+    private final LinkedHashMap<Key, Entry> mCache;
+    private final int mMaxSize;
+
+    /**
+     * ѯʱõkeyֻδҪ뻺ʱŴµkey
+     */
+    private final Key mLookupKey = new Key();
+
+    private int mHitCount;
+    private int mMissCount;
+
+    public static synchronized TextWidthCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new TextWidthCache(DEFAULT_MAX_SIZE);
+        }
+        return sInstance;
+    }
+
+    private TextWidthCache(int maxSize) {
+        mMaxSize = maxSize;
+        mCache = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > mMaxSize;
+            }
+        };
+    }
+
+    /**
+     * ֿȣлʱmeasureText
+     *
+     * @param text
+     * @param paint
+     *            õĻʣֺš塢densityΪkeyһ
+     * @return ֿȣtextΪʱ0
+     */
+    public float measureText(CharSequence text, TextPaint paint) {
+        if (text == null || text.length() == 0) {
+            return 0;
+        }
+        return getEntry(text.toString(), paint, false).width;
+    }
+
+    /**
+     * ȡʾʱ{@link BoringLayout.Metrics}лʱٲ
+     *
+     * @param text
+     * @param paint
+     * @return صĶǹģֻܶ޸ģtextΪջ߲BoringLayoutʾлУʱnull
+     */
+    public BoringLayout.Metrics getBoringMetrics(CharSequence text, TextPaint paint) {
+        if (text == null || text.length() == 0) {
+            return null;
+        }
+        return getEntry(text.toString(), paint, true).boring;
+    }
+
+    private Entry getEntry(String str, TextPaint paint, boolean needBoring) {
+        Entry entry;
+        synchronized (this) {
+            mLookupKey.set(str, paint);
+            entry = mCache.get(mLookupKey);
+            if (entry != null && (!needBoring || entry.boringResolved)) {
+                mHitCount++;
+                return entry;
+            }
+            mMissCount++;
+        }
+
+        // 棬̨ԤʱUI̵߳Ĳѯ
+        final float width = entry != null ? entry.width : paint.measureText(str);
+        final Entry measured = needBoring ? new Entry(width, true, BoringLayout.isBoring(str, paint)) : new Entry(
+                width, false, null);
+        Key key = new Key();
+        key.set(str, paint);
+        synchronized (this) {
+            mCache.put(key, measured);
+        }
+        return measured;
+    }
+
+    /**
+     * ջ棬ϵͳֺñ仯ʱ
+     */
+    public synchronized void evictAll() {
+        mCache.clear();
+    }
+
+    public synchronized int size() {
+        return mCache.size();
+    }
+
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    public synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        int accesses = mHitCount + mMissCount;
+        int hitPercent = accesses != 0 ? (100 * mHitCount / accesses) : 0;
+        return String.format("TextWidthCache[size=%d,maxSize=%d,hits=%d,misses=%d,hitRate=%d%%]", mCache.size(),
+                mMaxSize, mHitCount, mMissCount, hitPercent);
+    }
+
+    private static final class Entry {
+        final float width;
+        /**
+         * ǷѾboringboringΪnullǻû㣬Ҳǲܵʾ
+         */
+        final boolean boringResolved;
+        final BoringLayout.Metrics boring;
+
+        Entry(float width, boolean boringResolved, BoringLayout.Metrics boring) {
+            this.width = width;
+            this.boringResolved = boringResolved;
+            this.boring = boring;
+        }
+    }
+
+    private static final class Key {
+        String text;
+        float textSize;
+        float textScaleX;
+        float density;
+        int flags;
+        Typeface typeface;
+
+        void set(String text, TextPaint paint) {
+            this.text = text;
+            this.textSize = paint.getTextSize();
+            this.textScaleX = paint.getTextScaleX();
+            this.density = paint.density;
+            this.flags = paint.getFlags();
+            this.typeface = paint.getTypeface();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return textSize == other.textSize && textScaleX == other.textScaleX && density == other.density
+                    && flags == other.flags && typeface == other.typeface && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + Float.floatToIntBits(density);
+            result = 31 * result + flags;
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.double0291.settingitem.ui;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
 import android.app.Activity;
 import android.os.Bundle;
+import android.util.SparseIntArray;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.View.OnClickListener;
 import android.widget.Button;
 import android.widget.CompoundButton;
@@ -11,16 +18,30 @@ import android.widget.CompoundButton.OnCheckedChangeListener;
 
 import com.double0291.settingitem.R;
 import com.double0291.settingitem.SettingItemConstants;
-import com.double0291.settingitem.SettingSimpleItem;
+import com.double0291.settingitem.SettingFileStore;
+import com.double0291.settingitem.SettingFlatItem;
+import com.double0291.settingitem.SettingRedPointSync;
+import com.double0291.settingitem.SettingStateBinder;
+import com.double0291.settingitem.SettingStateFile;
 import com.double0291.settingitem.SettingSwitchItem;
 
 public class MainActivity extends Activity implements OnClickListener, OnCheckedChangeListener {
+    /**
+     * Keys of mItems in the red point file. R.id values can change with every build, these must not
+     */
+    private static final int[] RED_POINT_KEYS = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+
     SettingSwitchItem mSwitchItem;
+    SettingStateBinder mStateBinder;
+    /**
+     * All file I/O of this screen, shared with mStateBinder so nothing touches the disk on the UI thread
+     */
+    ScheduledExecutorService mIoExecutor;
     
     Button mClearBtn, mShowDotBtn, mShowNewBtn;
-    SettingSimpleItem mItem1, mItem2, mItem3, mItem4, mItem5, mItem6, mItem7, mItem8, mItem9, mItem10, mItem11,
+    SettingFlatItem mItem1, mItem2, mItem3, mItem4, mItem5, mItem6, mItem7, mItem8, mItem9, mItem10, mItem11,
             mItem12;
-    SettingSimpleItem[] mItems;
+    SettingFlatItem[] mItems;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -28,7 +49,10 @@ public class MainActivity extends Activity implements OnClickListener, OnChecked
         setContentView(R.layout.activity_main);
         
         mSwitchItem = (SettingSwitchItem) findViewById(R.id.switch_item);
-        mSwitchItem.setOnCheckedChangeListener(this);
+        mIoExecutor = Executors.newSingleThreadScheduledExecutor();
+        mStateBinder = new SettingStateBinder(new SettingFileStore(this, "settings.properties"), mIoExecutor,
+                SettingStateBinder.DEFAULT_WRITE_DELAY_MS);
+        mStateBinder.bind(mSwitchItem, "switch_item", false, this);
         
         mClearBtn = (Button) findViewById(R.id.clear_btn);
         mClearBtn.setOnClickListener(this);
@@ -37,44 +61,52 @@ public class MainActivity extends Activity implements OnClickListener, OnChecked
         mShowNewBtn = (Button) findViewById(R.id.show_new_btn);
         mShowNewBtn.setOnClickListener(this);
 
-        mItem1 = (SettingSimpleItem) findViewById(R.id.item1);
-        mItem2 = (SettingSimpleItem) findViewById(R.id.item2);
-        mItem3 = (SettingSimpleItem) findViewById(R.id.item3);
-        mItem4 = (SettingSimpleItem) findViewById(R.id.item4);
-        mItem5 = (SettingSimpleItem) findViewById(R.id.item5);
-        mItem6 = (SettingSimpleItem) findViewById(R.id.item6);
-        mItem7 = (SettingSimpleItem) findViewById(R.id.item7);
-        mItem8 = (SettingSimpleItem) findViewById(R.id.item8);
-        mItem9 = (SettingSimpleItem) findViewById(R.id.item9);
-        mItem10 = (SettingSimpleItem) findViewById(R.id.item10);
-        mItem11 = (SettingSimpleItem) findViewById(R.id.item11);
-        mItem12 = (SettingSimpleItem) findViewById(R.id.item12);
-
-        mItems = new SettingSimpleItem[] { mItem1, mItem2, mItem3, mItem4, mItem5, mItem6, mItem7, mItem8, mItem9,
+        mItem1 = (SettingFlatItem) findViewById(R.id.item1);
+        mItem2 = (SettingFlatItem) findViewById(R.id.item2);
+        mItem3 = (SettingFlatItem) findViewById(R.id.item3);
+        mItem4 = (SettingFlatItem) findViewById(R.id.item4);
+        mItem5 = (SettingFlatItem) findViewById(R.id.item5);
+        mItem6 = (SettingFlatItem) findViewById(R.id.item6);
+        mItem7 = (SettingFlatItem) findViewById(R.id.item7);
+        mItem8 = (SettingFlatItem) findViewById(R.id.item8);
+        mItem9 = (SettingFlatItem) findViewById(R.id.item9);
+        mItem10 = (SettingFlatItem) findViewById(R.id.item10);
+        mItem11 = (SettingFlatItem) findViewById(R.id.item11);
+        mItem12 = (SettingFlatItem) findViewById(R.id.item12);
+
+        mItems = new SettingFlatItem[] { mItem1, mItem2, mItem3, mItem4, mItem5, mItem6, mItem7, mItem8, mItem9,
                 mItem10, mItem11, mItem12 };
+        restoreRedPoints();
     }
 
     @Override
-    public void onClick(View v) {
-        int size = mItems.length;
+    protected void onPause() {
+        super.onPause();
+        mStateBinder.flush();
+        saveRedPoints();
+    }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mStateBinder.close();
+        // already queued writes still run
+        mIoExecutor.shutdown();
+    }
+
+    @Override
+    public void onClick(View v) {
         switch (v.getId()) {
         case R.id.clear_btn:
-            for (int i = 0; i < size; i++) {
-                mItems[i].clearRedPoint();
-            }
+            setAllRedPoints(SettingItemConstants.RED_POINT_TYPE_NONE);
             break;
 
         case R.id.show_dot_btn:
-            for (int i = 0; i < size; i++) {
-                mItems[i].setRedPointType(SettingItemConstants.RED_POINT_TYPE_DOT);
-            }
+            setAllRedPoints(SettingItemConstants.RED_POINT_TYPE_DOT);
             break;
 
         case R.id.show_new_btn:
-            for (int i = 0; i < size; i++) {
-                mItems[i].setRedPointType(SettingItemConstants.RED_POINT_TYPE_NEW);
-            }
+            setAllRedPoints(SettingItemConstants.RED_POINT_TYPE_NEW);
             break;
 
         default:
@@ -82,6 +114,79 @@ public class MainActivity extends Activity implements OnClickListener, OnChecked
         }
     }
 
+    private void setAllRedPoints(int type) {
+        // the whole badge map is applied at once, only changed items are touched and the page lays out once
+        SparseIntArray redPoints = new SparseIntArray(mItems.length);
+        for (int i = 0, size = mItems.length; i < size; i++) {
+            redPoints.put(mItems[i].getId(), type);
+        }
+        SettingRedPointSync.apply((ViewGroup) findViewById(android.R.id.content), redPoints);
+    }
+
+    /**
+     * getFilesDir() may create the directory, call this on mIoExecutor only
+     */
+    private File getRedPointFile() {
+        return new File(getFilesDir(), "red_points.state");
+    }
+
+    private void restoreRedPoints() {
+        mIoExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                SettingStateFile states;
+                try {
+                    states = SettingStateFile.open(getRedPointFile());
+                } catch (IOException e) {
+                    return;
+                }
+                final int[] types = new int[RED_POINT_KEYS.length];
+                for (int i = 0; i < types.length; i++) {
+                    types[i] = states.getRedPointType(RED_POINT_KEYS[i], -1);
+                }
+                runOnUiThread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        applyRedPoints(types);
+                    }
+                });
+            }
+        });
+    }
+
+    private void applyRedPoints(int[] types) {
+        if (isFinishing()) {
+            return;
+        }
+        SparseIntArray redPoints = new SparseIntArray(types.length);
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] != -1) {
+                redPoints.put(mItems[i].getId(), types[i]);
+            }
+        }
+        SettingRedPointSync.apply((ViewGroup) findViewById(android.R.id.content), redPoints);
+    }
+
+    private void saveRedPoints() {
+        final int[] types = new int[mItems.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = mItems[i].getRedPointType();
+        }
+        mIoExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    SettingStateFile.write(getRedPointFile(), RED_POINT_KEYS, types);
+                } catch (IOException e) {
+                    // keep the previous file
+                }
+            }
+        });
+    }
+
     @Override
     public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
         if (isChecked) {